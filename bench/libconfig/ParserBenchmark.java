@@ -0,0 +1,54 @@
+package libconfig;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares ConfigurationParser against Properties.load on the contents of a
+ * default configuration file. Both work from memory so only the parsing is
+ * measured. It lives in the libconfig package because the parser isn't public.
+ *
+ * @author rombus
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParserBenchmark {
+    private byte[] file;
+
+    @Setup
+    public void setup() throws IOException {
+        Properties p = ConfigurationManager.getInstance().setDefaultValues(new Properties());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        p.store(out, "Magma Playout Configuration File");
+        file = out.toByteArray();
+    }
+
+    @Benchmark
+    public String[] configurationParser() throws IOException {
+        return ConfigurationParser.parse(file, file.length);
+    }
+
+    @Benchmark
+    public Properties propertiesLoad() throws IOException {
+        Properties p = new Properties();
+        p.load(new ByteArrayInputStream(file));
+        return p;
+    }
+}
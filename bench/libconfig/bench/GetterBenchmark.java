@@ -0,0 +1,83 @@
+package libconfig.bench;
+
+import java.lang.invoke.MethodHandle;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import libconfig.ConfigurationManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of the ConfigurationManager getters.
+ * Run it with different thread counts (-t 1, -t 4, ...) to see how the
+ * getters scale, and with -prof gc to see the allocation per call.
+ *
+ * @author rombus
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GetterBenchmark {
+    private static final Logger LOGGER = Logger.getLogger(GetterBenchmark.class.getName());
+    private static final MethodHandle FPS_CONSTANT;
+
+    static {
+        LOGGER.setLevel(Level.OFF);
+        ConfigurationManager.getInstance().init(LOGGER);
+        FPS_CONSTANT = ConfigurationManager.getInstance().getIntConstant("medias_fps");
+    }
+
+    private ConfigurationManager cfg;
+
+    @Setup
+    public void setup(){
+        cfg = ConfigurationManager.getInstance();
+    }
+
+    @Benchmark
+    public int redisPort(){
+        return cfg.getRedisPort();
+    }
+
+    @Benchmark
+    public String redisHost(){
+        return cfg.getRedisHost();
+    }
+
+    @Benchmark
+    public String redisPccpChannel(){
+        return cfg.getRedisPccpChannel();
+    }
+
+    @Benchmark
+    public int meltedReconnectionTimeout(){
+        return cfg.getMeltedReconnectionTimeout();
+    }
+
+    @Benchmark
+    public int meltedPlaylistMaxDuration(){
+        return cfg.getMeltedPlaylistMaxDuration();
+    }
+
+    @Benchmark
+    public int mediasFps(){
+        return cfg.getMediasFPS();
+    }
+
+    @Benchmark
+    public int mediasFpsConstant() throws Throwable {
+        return (int) FPS_CONSTANT.invokeExact();
+    }
+}
@@ -0,0 +1,122 @@
+package libconfig.bench;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import libconfig.ConfigurationManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Latency of loading the configuration file.
+ * The cold start benchmark runs init() once per fork, on a fresh JVM, which
+ * is what the playout chain pays at startup. The reload benchmarks measure
+ * the steady state cost once the code is warm: reloadUnchanged is the
+ * stat-only path taken when the file didn't change, and reloadChanged
+ * rewrites a value before every call so the file is read, parsed,
+ * validated and published.
+ *
+ * @author rombus
+ */
+@State(Scope.Thread)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class InitBenchmark {
+    private Logger logger;
+    private ConfigurationManager cfg;
+
+    @Setup
+    public void setup(){
+        logger = Logger.getLogger(InitBenchmark.class.getName());
+        logger.setLevel(Level.OFF);
+        cfg = ConfigurationManager.getInstance();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 0)
+    @Measurement(iterations = 1)
+    @Fork(20)
+    public ConfigurationManager coldInit(){
+        cfg.init(logger);
+        return cfg;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @Warmup(iterations = 5, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    @Fork(1)
+    public boolean reloadUnchanged(Initialized initialized){
+        return cfg.reload(logger);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @Warmup(iterations = 5, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    @Fork(1)
+    public boolean reloadChanged(Changed changed){
+        return cfg.reload(logger);
+    }
+
+    /**
+     * Makes sure the configuration file exists before measuring reloads.
+     */
+    @State(Scope.Benchmark)
+    public static class Initialized {
+        @Setup
+        public void setup(){
+            Logger logger = Logger.getLogger(InitBenchmark.class.getName());
+            logger.setLevel(Level.OFF);
+            ConfigurationManager.getInstance().init(logger);
+        }
+    }
+
+    /**
+     * Appends a different value to the configuration file before every
+     * reload, and restores the file at the end.
+     */
+    @State(Scope.Benchmark)
+    public static class Changed {
+        private Path file;
+        private byte[] original;
+        private boolean toggle;
+
+        @Setup
+        public void setup() throws IOException {
+            new Initialized().setup();
+            file = Paths.get(System.getProperty("user.home"), ".magma-playout.conf");
+            original = Files.readAllBytes(file);
+        }
+
+        @Setup(org.openjdk.jmh.annotations.Level.Invocation)
+        public void change() throws IOException {
+            toggle = !toggle;
+            String line = "\nredis_reconnection_timeout=" + (toggle ? "1000" : "1001") + "\n";
+            byte[] extra = line.getBytes(StandardCharsets.ISO_8859_1);
+            byte[] data = new byte[original.length + extra.length];
+            System.arraycopy(original, 0, data, 0, original.length);
+            System.arraycopy(extra, 0, data, original.length, extra.length);
+            Files.write(file, data);
+        }
+
+        @TearDown
+        public void restore() throws IOException {
+            Files.write(file, original);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package libconfig;
+
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A path of the configuration, resolved once when the configuration is
+ * loaded, with its existence and permissions cached for a short time.
+ * Code that checks the same directory for every media doesn't hit the
+ * filesystem more than once per TTL. Concurrent checks after the TTL expires
+ * may stat the file more than once, but never block each other.
+ *
+ * @author rombus
+ */
+public final class CachedPath {
+    /**
+     * How long the result of a filesystem check is reused.
+     */
+    public static final long TTL_MILLIS = 1000;
+
+    private static final long TTL_NANOS = TimeUnit.MILLISECONDS.toNanos(TTL_MILLIS);
+    private static final String UNSET_MARKER = "EDIT ME!";
+
+    private final Path path;
+    private volatile Status status;
+
+    private CachedPath(Path path){
+        this.path = path;
+    }
+
+    /**
+     * Resolves a path of the configuration.
+     * A leading ~ is expanded to the user home and the path is normalized.
+     *
+     * @param value The raw value of the key
+     * @return The resolved path, or null if the value is empty, still has the
+     * "EDIT ME!" placeholder of the default file or isn't a valid path
+     */
+    static CachedPath resolve(String value){
+        String s = expandHome(value.trim());
+        if(s.isEmpty() || s.startsWith(UNSET_MARKER)){
+            return null;
+        }
+
+        try {
+            return new CachedPath(Paths.get(s).normalize());
+        }
+        catch (InvalidPathException e){
+            return null;
+        }
+    }
+
+    /**
+     * @param value A path
+     * @return The path with a leading ~ or ~/ replaced by the user home
+     */
+    static String expandHome(String value){
+        if(value.equals("~") || value.startsWith("~/")){
+            return System.getProperty("user.home") + value.substring(1);
+        }
+        return value;
+    }
+
+    public Path getPath(){
+        return path;
+    }
+
+    public boolean exists(){
+        return status().exists;
+    }
+
+    public boolean isDirectory(){
+        return status().directory;
+    }
+
+    public boolean isReadable(){
+        return status().readable;
+    }
+
+    public boolean isWritable(){
+        return status().writable;
+    }
+
+    private Status status(){
+        Status s = status;
+        long now = System.nanoTime();
+        if(s == null || now - s.checkedAt > TTL_NANOS){
+            s = new Status(path, now);
+            status = s;
+        }
+        return s;
+    }
+
+    @Override
+    public String toString(){
+        return path.toString();
+    }
+
+    private static final class Status {
+        private final long checkedAt;
+        private final boolean exists;
+        private final boolean directory;
+        private final boolean readable;
+        private final boolean writable;
+
+        Status(Path path, long checkedAt){
+            this.checkedAt = checkedAt;
+            exists = Files.exists(path);
+            directory = exists && Files.isDirectory(path);
+            readable = exists && Files.isReadable(path);
+            writable = exists && Files.isWritable(path);
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package libconfig;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The keys of the configuration file, their sections, their default values
+ * and the constraints their values must follow.
+ * Durations accept a unit suffix (ns, us, ms, s, m, h, d). Numbers without a
+ * suffix are read in the unit of the key.
+ * The configuration values are stored in arrays indexed by the ordinal of
+ * these keys.
+ *
+ * @author rombus
+ */
+public enum ConfigKey {
+    REDIS_SERVER_HOSTNAME("redis_server_hostname", "redis", "localhost", Constraint.notEmpty()),
+    REDIS_SERVER_PORT("redis_server_port", "redis", "6379", Constraint.port()),
+    /**
+     * Comma separated host:port list of Redis servers, like "redis1:6379,redis2:6379".
+     * When it's empty redis_server_hostname and redis_server_port are used.
+     */
+    REDIS_SERVERS("redis_servers", "redis", "", Constraint.hostPortList()),
+    REDIS_PCCP_CHANNEL("redis_pccp_channel", "redis", "PCCP", Constraint.notEmpty()),
+    REDIS_FSCP_CHANNEL("redis_fscp_channel", "redis", "FSCP", Constraint.notEmpty()),
+    REDIS_PCR_CHANNEL("redis_pcr_channel", "redis", "PCR", Constraint.notEmpty()),
+    REDIS_MSTA_CHANNEL("redis_msta_channel", "redis", "MSTA", Constraint.notEmpty()),
+    REDIS_RECONNECTION_TIMEOUT("redis_reconnection_timeout", "redis", "1000", TimeUnit.MILLISECONDS, Constraint.nonNegativeDuration(TimeUnit.MILLISECONDS)),
+    /**
+     * Each reconnection attempt waits the previous delay times this
+     * multiplier, up to redis_reconnection_max_delay. 1 keeps a fixed delay.
+     */
+    REDIS_RECONNECTION_BACKOFF_MULTIPLIER("redis_reconnection_backoff_multiplier", "redis", "1", Constraint.decimal(1, 100)),
+    REDIS_RECONNECTION_MAX_DELAY("redis_reconnection_max_delay", "redis", "60s", TimeUnit.MILLISECONDS, Constraint.nonNegativeDuration(TimeUnit.MILLISECONDS)),
+    /**
+     * Fraction of each delay that is randomized, between 0 and 1, so clients
+     * don't reconnect all at the same time after an outage.
+     */
+    REDIS_RECONNECTION_JITTER("redis_reconnection_jitter", "redis", "0", Constraint.decimal(0, 1)),
+    /**
+     * Maximum connections of the Redis pool. "auto" uses twice the number of processors.
+     */
+    REDIS_POOL_SIZE("redis_pool_size", "redis", "auto", Constraint.autoOr(Constraint.range(1, 1024))),
+    REDIS_COMMAND_TIMEOUT("redis_command_timeout", "redis", "2s", TimeUnit.MILLISECONDS, Constraint.positiveDuration(TimeUnit.MILLISECONDS)),
+    /**
+     * Maximum commands sent in a pipeline before reading their replies.
+     */
+    REDIS_PIPELINE_DEPTH("redis_pipeline_depth", "redis", "64", Constraint.range(1, 65536)),
+    /**
+     * Size in bytes of the buffer of pub/sub messages.
+     */
+    REDIS_PUBSUB_BUFFER_SIZE("redis_pubsub_buffer_size", "redis", "65536", Constraint.range(1024, 64 * 1024 * 1024)),
+
+    MELTED_SERVER_HOSTNAME("melted_server_hostname", "melted", "localhost", Constraint.notEmpty()),
+    MELTED_SERVER_PORT("melted_server_port", "melted", "5250", Constraint.port()),
+    MELTED_RECONNECTION_TIMEOUT("melted_reconnection_timeout", "melted", "1000", TimeUnit.MILLISECONDS, Constraint.nonNegativeDuration(TimeUnit.MILLISECONDS)),
+    MELTED_RECONNECTION_TRIES("melted_reconnection_tries", "melted", "0", Constraint.nonNegative()),
+    /**
+     * Same as redis_reconnection_backoff_multiplier for melted.
+     */
+    MELTED_RECONNECTION_BACKOFF_MULTIPLIER("melted_reconnection_backoff_multiplier", "melted", "1", Constraint.decimal(1, 100)),
+    MELTED_RECONNECTION_MAX_DELAY("melted_reconnection_max_delay", "melted", "60s", TimeUnit.MILLISECONDS, Constraint.nonNegativeDuration(TimeUnit.MILLISECONDS)),
+    MELTED_RECONNECTION_JITTER("melted_reconnection_jitter", "melted", "0", Constraint.decimal(0, 1)),
+    /**
+     * This key defines the duration of melted playlist. This is used for
+     * avoiding overloading melted's playlist.
+     * The APND's over melted are controlled by the MeltedProxy class.
+     *
+     * In Minutes
+     */
+    MELTED_PLAYLIST_MAX_DURATION("melted_playlist_max_duration", "melted", "120", TimeUnit.MINUTES, Constraint.positiveDuration(TimeUnit.MINUTES)), // 2 hs
+    /**
+     * This key defines the polling interval for the melted appender module.
+     *
+     * In Minutes
+     */
+    MELTED_APPENDER_WORKER_FREQ("melted_appender_worker_freq", "melted", "5", TimeUnit.MINUTES, Constraint.positiveDuration(TimeUnit.MINUTES)), // 5 mins
+    MELT_PATH("melt_path", "melted", "/usr/bin/melt/melt", Constraint.any()),
+
+    /**
+     * The path of the default media that will be played when there's nothing else loaded.
+     * Must be an "MLT XML" .mlt file.
+     * Must be an absolute path. ~/ is expanded to the user home.
+     */
+    DEFAULT_MEDIA_PATH("default_media_path", "paths", "/usr/local/magma-playout/default.mlt", Constraint.absolutePath()),
+
+    /**
+     * The path where the spacers mlt files are going to be generated.
+     * Needs to be an absolute path. ~/ is expanded to the user home.
+     */
+    MLT_SPACERS_PATH("mlt_spacers_path", "paths", "/usr/local/magma-playout/spacers/", Constraint.absolutePath()),
+
+    /**
+     * URL of the filter banner page. Must be a valid URL.
+     */
+    FILTER_SERVER_HOSTNAME("filter_server_hostname", "urls", "http://localhost:3001/filter-banner.html", Constraint.url()),
+
+    /**
+     * URL of mp-playout-api. Must be a valid URL.
+     */
+    PLAYOUT_API_URL("playout_api_url", "urls", "http://localhost:8001/api/", Constraint.url()),
+
+    /**
+     * URL of mp-admin-api. Must be a valid URL.
+     */
+    ADMIN_API_URL("admin_api_url", "urls", "http://localhost:8080/api/", Constraint.url()),
+
+    /**
+     * The FPS of all medias loaded in the system.
+     * Note that if you change this you'll have to reload all your medias and pieces with the new configuration.
+     * Between 1 and 1000. Above 100 fps timecodes have three digits of frames.
+     */
+    MEDIAS_FPS("medias_fps", "medias", "60", Constraint.range(1, 1000)),
+
+    /**
+     * The thumbnails directory relative to the webroot that will be stored in the DB
+     */
+    GUI_THUMB_DIR("gui_thumb_dir", "gui", "/assets/img/media-thumbnails/", Constraint.any()),
+
+    /**
+     * MP-Devourer
+     */
+    MLT_FRAMEWORK_DIR("mlt_framework_dir", "devourer", "EDIT ME!--> /XXX/mp-installer//MagmaPlayout/core/melted/XXXXXXX/bin/ffmpeg", Constraint.any()), //TODO agregar esta config en el script de installer
+    DEVOURER_INPUT_DIR("devourer_input_dir", "devourer", "EDIT ME!--> ~/Videos/input", Constraint.any()),
+    DEVOURER_OUTPUT_DIR("devourer_output_dir", "devourer", "EDIT ME!--> ~/Videos/output", Constraint.any()),
+    DEVOURER_MEDIA_DIR("devourer_media_dir", "devourer", "", Constraint.any()), // Not used at the moment. Possiblly to store a remote path
+    DEVOURER_THUMB_DIR("devourer_thumb_dir", "devourer", "EDIT ME!--> /XXX/mp-installer/magma-playout/gui/mp-ui-playout/src/assets/img", Constraint.any()),
+    /**
+     * Output arguments of ffmpeg, split like a shell does.
+     * Remember that backslashes must be doubled in the configuration file.
+     */
+    DEVOURER_FFMPEG_ARGS("devourer_ffmpeg_args", "devourer", "-f avi -c:v libx264 -qp 0", Constraint.shellWords()),
+    DEVOURER_THUMBS_QTY("devourer_thumbs_qty", "devourer", "10", Constraint.nonNegative());
+
+    private static final Map<String, ConfigKey> BY_KEY = new HashMap<>();
+
+    static {
+        for(ConfigKey k : values()){
+            BY_KEY.put(k.key, k);
+        }
+    }
+
+    private final String key;
+    private final String section;
+    private final String defaultValue;
+    private final Constraint constraint;
+    private final TimeUnit unit;
+
+    private ConfigKey(String key, String section, String defaultValue, Constraint constraint){
+        this(key, section, defaultValue, null, constraint);
+    }
+
+    /**
+     * @param unit For durations, the unit of the values without a suffix
+     */
+    private ConfigKey(String key, String section, String defaultValue, TimeUnit unit, Constraint constraint){
+        this.key = key;
+        this.section = section;
+        this.defaultValue = defaultValue;
+        this.unit = unit;
+        this.constraint = constraint;
+    }
+
+    /**
+     * @return The name of the key in the configuration file
+     */
+    public String getKey(){
+        return key;
+    }
+
+    public String getDefaultValue(){
+        return defaultValue;
+    }
+
+    Constraint getConstraint(){
+        return constraint;
+    }
+
+    /**
+     * @return The unit of the values without a suffix, or null if the key isn't a duration
+     */
+    TimeUnit getUnit(){
+        return unit;
+    }
+
+    /**
+     * @return The group of the key, like "redis" for redis_server_port, "melted" for melt_path or "urls" for playout_api_url
+     */
+    public String getSection(){
+        return section;
+    }
+
+    /**
+     * @param key The name of the key in the configuration file
+     * @return The matching ConfigKey, or null if it's not a known key
+     */
+    public static ConfigKey forKey(String key){
+        return BY_KEY.get(key);
+    }
+
+    @Override
+    public String toString(){
+        return key;
+    }
+}
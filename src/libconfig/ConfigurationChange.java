@@ -0,0 +1,62 @@
+package libconfig;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The old and new values of the keys that changed in a reload.
+ *
+ * @author rombus
+ */
+public final class ConfigurationChange {
+    private final Map<ConfigKey, String[]> changes;
+
+    /**
+     * @param changes Map of key to a {old value, new value} pair
+     */
+    ConfigurationChange(Map<ConfigKey, String[]> changes){
+        this.changes = Collections.unmodifiableMap(changes);
+    }
+
+    /**
+     * @return The keys that changed
+     */
+    public Set<ConfigKey> getChangedKeys(){
+        return changes.keySet();
+    }
+
+    public boolean hasChanged(ConfigKey key){
+        return changes.containsKey(key);
+    }
+
+    /**
+     * @param key Configuration key
+     * @return The value before the reload, or null if the key didn't change
+     */
+    public String getOldValue(ConfigKey key){
+        String[] change = changes.get(key);
+        return change == null ? null : change[0];
+    }
+
+    /**
+     * @param key Configuration key
+     * @return The value after the reload, or null if the key didn't change
+     */
+    public String getNewValue(ConfigKey key){
+        String[] change = changes.get(key);
+        return change == null ? null : change[1];
+    }
+
+    @Override
+    public String toString(){
+        StringBuilder sb = new StringBuilder("ConfigurationChange{");
+        for(Map.Entry<ConfigKey, String[]> e : changes.entrySet()){
+            sb.append(e.getKey()).append(": ").append(e.getValue()[0]).append(" -> ").append(e.getValue()[1]).append(", ");
+        }
+        if(!changes.isEmpty()){
+            sb.setLength(sb.length() - 2);
+        }
+        return sb.append('}').toString();
+    }
+}
@@ -0,0 +1,68 @@
+package libconfig;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Merges the configuration layers into a single flat array of values:
+ * defaults, then the main configuration file, then the file sources and then
+ * the overrides of the process, in order. The merge happens once per load,
+ * so looking up a value costs the same no matter how many layers there are.
+ *
+ * The file layers are merged separately from the overrides, because only
+ * the files are saved in the cache. The overrides, like environment
+ * variables, belong to the running process and are always read again.
+ *
+ * @author rombus
+ */
+class ConfigurationLayers {
+    private final List<ConfigurationSource> fileSources;
+    private final List<ConfigurationSource> overrides;
+
+    /**
+     * @param fileSources Sources read from files, applied on top of the main configuration file, lowest priority first
+     * @param overrides Sources of the running process, applied on top of the files, lowest priority first
+     */
+    ConfigurationLayers(List<ConfigurationSource> fileSources, List<ConfigurationSource> overrides){
+        this.fileSources = fileSources;
+        this.overrides = overrides;
+    }
+
+    /**
+     * @param fileValues Values of the main configuration file, null for the keys it doesn't set
+     * @return Values of every key from the defaults and the file layers only
+     * @throws IOException If a source can't be read
+     */
+    String[] mergeFiles(String[] fileValues) throws IOException {
+        String[] values = ConfigurationParser.defaultValues();
+        overlay(values, fileValues);
+        for(ConfigurationSource source : fileSources){
+            overlay(values, source.read());
+        }
+        return values;
+    }
+
+    /**
+     * @param fileLayers Values of every key from the file layers. It's not modified.
+     * @return A copy of fileLayers with the overrides applied
+     * @throws IOException If a source can't be read
+     */
+    String[] applyOverrides(String[] fileLayers) throws IOException {
+        String[] values = fileLayers.clone();
+        for(ConfigurationSource source : overrides){
+            overlay(values, source.read());
+        }
+        return values;
+    }
+
+    /**
+     * Copies the values set in the layer over the values array.
+     */
+    static void overlay(String[] values, String[] layer){
+        for(int i = 0; i < values.length; i++){
+            if(layer[i] != null){
+                values[i] = layer[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package libconfig;
+
+/**
+ * Receives the configuration values that changed after a reload.
+ * Listeners are registered in the ConfigurationManager for specific keys or
+ * sections and are only notified when one of those keys changes.
+ *
+ * @author rombus
+ */
+public interface ConfigurationListener {
+    /**
+     * Called from the thread that reloaded the configuration, after the new
+     * values are already visible through the ConfigurationManager getters.
+     *
+     * @param change The changed keys this listener is subscribed to
+     */
+    void configurationChanged(ConfigurationChange change);
+}
@@ -1,11 +1,26 @@
 package libconfig;
 
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.invoke.MethodHandle;
+import java.net.URI;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -16,287 +31,741 @@ import java.util.logging.Logger;
  * @author rombus
  */
 public class ConfigurationManager {
-    private static ConfigurationManager instance;
-
     private static final String CONFIG_PATH = System.getProperty("user.home")+File.separator+".magma-playout.conf";
+    private static final String CACHE_PATH = CONFIG_PATH + ".cache";
+    private static final String FRAGMENTS_PATH = "/etc/magma-playout/conf.d";
+
+    /**
+     * How long init waits for the configuration file before using the cache.
+     * Only applies when there is a cache to fall back to.
+     */
+    private static final long CONFIG_READ_TIMEOUT_MILLIS = 2000;
+
+    /**
+     * Default time without file events the watcher waits before reloading.
+     */
+    public static final long DEFAULT_QUIET_PERIOD_MILLIS = 300;
 
-    private static final String REDIS_SERVER_HOSTNAME = "redis_server_hostname";
-    private static final String REDIS_SERVER_PORT = "redis_server_port";
-    private static final String REDIS_PCCP_CHANNEL = "redis_pccp_channel";
-    private static final String REDIS_FSCP_CHANNEL = "redis_fscp_channel";
-    private static final String REDIS_PCR_CHANNEL = "redis_pcr_channel";
-    private static final String REDIS_MSTA_CHANNEL = "redis_msta_channel";
-    private static final String REDIS_RECONNECTION_TIMEOUT = "redis_reconnection_timeout";
-
-    private static final String MELTED_SERVER_HOSTNAME = "melted_server_hostname";
-    private static final String MELTED_SERVER_PORT = "melted_server_port"; 
-    private static final String MELTED_RECONNECTION_TIMEOUT = "melted_reconnection_timeout"; 
-    private static final String MELTED_RECONNECTION_TRIES = "melted_reconnection_tries"; 
-    /**
-     * This key defines the duration of melted playlist. This is used for
-     * avoiding overloading melted's playlist.
-     * The APND's over melted are controlled by the MeltedProxy class.
+    /**
+     * Only replaced as a whole, never modified, so readers always see a
+     * complete set of values without taking any lock.
+     */
+    private volatile ConfigurationSnapshot snapshot;
+    private ConfigurationWatcher watcher;
+    private final ListenerRegistry listeners = new ListenerRegistry();
+    private final ConstantCallSites callSites = new ConstantCallSites();
+    private final SnapshotCache cache = new SnapshotCache(Paths.get(CACHE_PATH));
+    private final ParsedFileCache parsedFiles = new ParsedFileCache();
+    private final FragmentDirectorySource fragments = new FragmentDirectorySource(Paths.get(FRAGMENTS_PATH), parsedFiles);
+    private final ConfigurationLayers layers = new ConfigurationLayers(
+            Collections.<ConfigurationSource>singletonList(fragments),
+            Arrays.<ConfigurationSource>asList(new EnvironmentSource(System.getenv()), new SystemPropertiesSource()));
+
+    private ConfigurationManager(){
+    }
+
+    /**
+     * Lazily created on first access. The JVM class initialization
+     * guarantees it's safely published to every thread.
+     */
+    private static class InstanceHolder {
+        private static final ConfigurationManager INSTANCE = new ConfigurationManager();
+    }
+
+    public static ConfigurationManager getInstance(){
+        return InstanceHolder.INSTANCE;
+    }
+
+    /**
+     * Loads the configuration and parses it into an immutable snapshot
+     * that all the getters read from.
+     * The configuration is made of layers, each one overriding the previous:
+     * default values, the configuration file, the fragments in
+     * /etc/magma-playout/conf.d/*.conf (in file name order), MAGMA_PLAYOUT_*
+     * environment variables and -Dmagma-playout.* system properties.
+     * If the configuration file doesn't exist and there's no cache yet, it
+     * creates one with default values. When there's a cache a missing file is
+     * treated like any other read error and the file isn't created.
+     * The values are validated against the constraints of their keys and
+     * the file layers of every valid configuration are also saved in a binary
+     * cache next to the configuration file.
+     * If the configuration can't be read, takes too long to be read or has
+     * invalid values, a warning is logged and the application continues with
+     * the cached values or, if there's no cache, with the default values.
+     * The environment variables and system properties are applied over them
+     * in both cases.
+     * When a read that took too long finishes, the configuration is reloaded.
      *
-     * In Minutes
+     * @param logger The application logger
      */
-    private static final String MELTED_PLAYLIST_MAX_DURATION = "melted_playlist_max_duration";
+    public void init(Logger logger){
+        // Everything is loaded into a local array and published at the end
+        String[] fileValues = null;
+        CompletableFuture<String[]> slowRead = null;
+
+        try {
+            if(cache.exists()){
+                slowRead = readAsync(Paths.get(CONFIG_PATH));
+                fileValues = slowRead.get(CONFIG_READ_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                slowRead = null;
+            }
+            else {
+                fileValues = parsedFiles.parse(Paths.get(CONFIG_PATH));
+            }
+        }
+        catch (TimeoutException e){
+            logger.log(Level.WARNING, "Reading the configuration file is taking too long. It will be applied when the read finishes.");
+        }
+        catch (ExecutionException e){
+            slowRead = null;
+            logReadError(e.getCause(), logger);
+        }
+        catch (InterruptedException e){
+            Thread.currentThread().interrupt();
+        }
+        catch (NoSuchFileException e){
+            // Without a cache there's nothing better than the defaults
+            fileValues = createDefaultFile(Paths.get(CONFIG_PATH), logger);
+        }
+        catch (IOException e){
+            logReadError(e, logger);
+        }
+
+        // The cache only keeps the file layers, the overrides are always the current ones
+        String[] fileLayers = null;
+        String[] toCache = null;
+        String[] values = null;
+        if(fileValues != null){
+            try {
+                fileLayers = layers.mergeFiles(fileValues);
+                logger.log(Level.FINE, "Configuration fragments load times: {0}", fragments.getLoadTimes());
+                values = layers.applyOverrides(fileLayers);
+            }
+            catch (IOException e){
+                logReadError(e, logger);
+            }
+        }
+
+        if(values != null){
+            List<String> violations = ConfigurationValidator.validate(values);
+            if(violations.isEmpty()){
+                toCache = fileLayers;
+            }
+            else {
+                logger.log(Level.WARNING, "Invalid configuration values.{0}", formatViolations(violations));
+                values = null;
+            }
+        }
+
+        if(values == null){
+            values = withOverrides(cache.load(logger), logger);
+            if(values != null){
+                logger.log(Level.WARNING, "Continuing with the last valid configuration from {0}.", cache.getFile());
+            }
+            else {
+                values = withOverrides(ConfigurationParser.defaultValues(), logger);
+                if(values == null){
+                    values = ConfigurationParser.defaultValues();
+                }
+                logger.log(Level.WARNING, "Continuing with default values.");
+            }
+        }
+        publish(new ConfigurationSnapshot(values), toCache, logger);
+
+        if(slowRead != null){
+            slowRead.whenComplete((read, error) -> {
+                if(error != null){
+                    logReadError(error instanceof CompletionException ? error.getCause() : error, logger);
+                    return;
+                }
+                // The watcher may have applied a newer file in the meantime.
+                // The read left the file in parsedFiles, so reloading is cheap.
+                reload(logger);
+            });
+        }
+    }
+
+    /**
+     * @param fileLayers Values of the file layers, or null
+     * @return The values with the overrides applied, or null if there are no
+     * values, the overrides can't be read or the result isn't valid
+     */
+    private String[] withOverrides(String[] fileLayers, Logger logger){
+        if(fileLayers == null){
+            return null;
+        }
+        try {
+            String[] values = layers.applyOverrides(fileLayers);
+            return ConfigurationValidator.validate(values).isEmpty() ? values : null;
+        }
+        catch (IOException e){
+            logReadError(e, logger);
+            return null;
+        }
+    }
+
+    private void logReadError(Throwable error, Logger logger){
+        if(error instanceof NoSuchFileException){
+            logger.log(Level.WARNING, "Configuration file not found at {0}.", error.getMessage());
+        }
+        else if(error instanceof ConfigurationParseException){
+            logger.log(Level.WARNING, "Invalid configuration file: {0}.", error.getMessage());
+        }
+        else {
+            logger.log(Level.WARNING, "Failed reading the configuration: {0}", error.toString());
+        }
+    }
+
     /**
-     * This key defines the polling interval for the melted appender module.
+     * Creates the configuration file with the default values.
+     * An existing file is never overwritten: if it appeared in the meantime,
+     * for example because an editor was replacing it, it's read instead.
      *
-     * In Minutes
+     * @return The values of the file, or null if it exists but can't be read
      */
-    private static final String MELTED_APPENDER_WORKER_FREQ = "melted_appender_worker_freq";
-    private static final String MELT_PATH = "melt_path";
+    private String[] createDefaultFile(Path file, Logger logger){
+        try (OutputStream out = Files.newOutputStream(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            logger.log(Level.WARNING, "Configuration file not found at {0}. Creating it with default values.", file);
+            setDefaultValues(new Properties()).store(out, "Magma Playout Configuration File");
+        }
+        catch (FileAlreadyExistsException e){
+            try {
+                return parsedFiles.parse(file);
+            }
+            catch (IOException ex){
+                logReadError(ex, logger);
+                return null;
+            }
+        }
+        catch (IOException ex) {
+            logger.log(Level.WARNING, "Failed writing the configuration file.");
+        }
+        return new String[ConfigKey.values().length];
+    }
 
     /**
-     * The path of the default media that will be played when there's nothing else loaded.
-     * Must be an "MLT XML" .mlt file.
-     * Must be an absolute path without shell modifiers like ~/
+     * Parses the file on a separate daemon thread so the caller can stop
+     * waiting for it, for example when the home directory is on a hung NFS.
      */
-    private static final String DEFAULT_MEDIA_PATH = "default_media_path";
+    private CompletableFuture<String[]> readAsync(Path file){
+        CompletableFuture<String[]> read = new CompletableFuture<>();
+        Thread reader = new Thread(() -> {
+            try {
+                read.complete(parsedFiles.parse(file));
+            }
+            catch (IOException | RuntimeException e){
+                read.completeExceptionally(e);
+            }
+        }, "mp-libconfig-reader");
+        reader.setDaemon(true);
+        reader.start();
+        return read;
+    }
 
     /**
-     * The path where the spacers mlt files are going to be generated.
-     * Needs to be an absolute path (without shell modifiers like ~/)
+     * Re-reads every configuration layer and atomically replaces the current values.
+     * Files that didn't change since the last load aren't parsed again.
+     * Unlike init, if the file can't be read or has invalid values a warning
+     * listing every invalid value is logged and the last valid values are kept.
+     *
+     * @param logger The application logger
+     * @return true if the new values were applied
      */
-    private static final String MLT_SPACERS_PATH = "mlt_spacers_path";
+    public boolean reload(Logger logger){
+        String[] fileLayers;
 
-    private static final String FILTER_SERVER_HOSTNAME = "filter_server_hostname";
+        try {
+            fileLayers = layers.mergeFiles(parsedFiles.parse(Paths.get(CONFIG_PATH)));
+        }
+        catch (NoSuchFileException e){
+            // Probably being replaced. Reloads never create the default file.
+            logger.log(Level.WARNING, "Configuration file {0} not found. Keeping the current values.", e.getMessage());
+            return false;
+        }
+        catch (ConfigurationParseException e){
+            logger.log(Level.WARNING, "Invalid configuration file: {0}. Keeping the current values.", e.getMessage());
+            return false;
+        }
+        catch (IOException e){
+            logger.log(Level.WARNING, "Failed reading the configuration ({0}). Keeping the current values.", e.toString());
+            return false;
+        }
+
+        return apply(fileLayers, logger);
+    }
 
     /**
-     * URL of mp-playout-api. Must be a valid URL.
+     * Applies the overrides to the file layers and, if the result is valid,
+     * publishes it and caches the file layers.
+     * Only the sections with changed values are validated again, and if
+     * nothing changed the current snapshot is kept as is, so listeners,
+     * constants and the cache aren't touched.
+     *
+     * @return true if the values are valid and in use
      */
-    private static final String PLAYOUT_API_URL = "playout_api_url";
+    private boolean apply(String[] fileLayers, Logger logger){
+        String[] values;
+        try {
+            values = layers.applyOverrides(fileLayers);
+        }
+        catch (IOException e){
+            logger.log(Level.WARNING, "Failed reading the configuration ({0}). Keeping the current values.", e.toString());
+            return false;
+        }
+
+        ConfigurationSnapshot current = snapshot;
+        Set<String> sections = null;
+        if(current != null){
+            sections = current.changedSections(values);
+            if(sections.isEmpty()){
+                logger.log(Level.FINE, "Configuration unchanged. Nothing to apply.");
+                return true;
+            }
+        }
+
+        List<String> violations = ConfigurationValidator.validate(values, sections);
+        if(!violations.isEmpty()){
+            logger.log(Level.WARNING, "Invalid configuration values. Keeping the current values.{0}", formatViolations(violations));
+            return false;
+        }
+        publish(new ConfigurationSnapshot(values), fileLayers, logger);
+        return true;
+    }
+
+    private static String formatViolations(List<String> violations){
+        StringBuilder sb = new StringBuilder();
+        for(String violation : violations){
+            sb.append("\n\t").append(violation);
+        }
+        return sb.toString();
+    }
 
     /**
-     * URL of mp-admin-api. Must be a valid URL.
+     * Makes the snapshot visible to every reader and then notifies the
+     * listeners of the keys that changed.
+     * Synchronized so concurrent reloads notify their changes and update the
+     * cache in order, and an older configuration never overwrites the cache
+     * of a newer one.
+     *
+     * @param fileLayers The file layers to cache, or null to leave the cache as is
      */
-    private static final String ADMIN_API_URL = "admin_api_url";
+    private synchronized void publish(ConfigurationSnapshot loaded, String[] fileLayers, Logger logger){
+        ConfigurationSnapshot previous = snapshot;
+        snapshot = loaded;
+        callSites.update(loaded, logger);
+
+        if(previous != null){
+            listeners.dispatch(previous, loaded, logger);
+        }
+        if(fileLayers != null){
+            cache.store(fileLayers, logger);
+        }
+    }
 
     /**
-     * The FPS of all medias loaded in the system.
-     * Note that if you change this you'll have to reload all your medias and pieces with the new configuration.
-     */    
-    private static final String MEDIAS_FPS = "medias_fps";
-    
+     * For diagnosing slow startups or reloads.
+     *
+     * @return How long each configuration fragment took to load in the last load, in file name order
+     */
+    public List<FragmentLoadTime> getFragmentLoadTimes(){
+        return fragments.getLoadTimes();
+    }
+
     /**
-     * The thumbnails directory relative to the webroot that will be stored in the DB
+     * Subscribes a listener to changes of specific keys.
+     * It's notified after a reload only if at least one of the keys changed,
+     * and only receives the changes of those keys.
+     *
+     * @param listener The listener to notify
+     * @param keys The keys to listen to
      */
-    private static final String GUI_THUMB_DIR = "gui_thumb_dir";
-    
+    public void addListener(ConfigurationListener listener, ConfigKey... keys){
+        listeners.addKeys(listener, keys);
+    }
+
     /**
-     * MP-Devourer
+     * Same as addListener(ConfigurationListener, ConfigKey...) but with the
+     * keys as they are named in the configuration file.
+     *
+     * @param listener The listener to notify
+     * @param keys Configuration file keys, like "redis_pccp_channel"
+     * @throws IllegalArgumentException If a key is unknown
      */
-    private static final String MLT_FRAMEWORK_DIR = "mlt_framework_dir";
-    private static final String DEVOURER_INPUT_DIR = "devourer_input_dir";
-    private static final String DEVOURER_OUTPUT_DIR = "devourer_output_dir";
-    private static final String DEVOURER_MEDIA_DIR = "devourer_media_dir";
-    private static final String DEVOURER_THUMB_DIR = "devourer_thumb_dir";
-    private static final String DEVOURER_FFMPEG_ARGS = "devourer_ffmpeg_args";
-    private static final String DEVOURER_THUMBS_QTY = "devourer_thumbs_qty";
-    
-    private Properties properties;
+    public void addListener(ConfigurationListener listener, String... keys){
+        listeners.addKeys(listener, toConfigKeys(keys));
+    }
 
-    private ConfigurationManager(){
+    /**
+     * Subscribes a listener to changes of every key of a section.
+     * The sections are declared in ConfigKey. "redis", "melted" (including
+     * melt_path) and "devourer" (including mlt_framework_dir) match the
+     * settings objects, "paths" has default_media_path and mlt_spacers_path,
+     * "urls" has filter_server_hostname, playout_api_url and admin_api_url,
+     * "medias" has medias_fps and "gui" has gui_thumb_dir.
+     *
+     * @param listener The listener to notify
+     * @param section The section, as returned by ConfigKey.getSection()
+     * @throws IllegalArgumentException If no key belongs to the section
+     */
+    public void addSectionListener(ConfigurationListener listener, String section){
+        boolean known = false;
+        for(ConfigKey k : ConfigKey.values()){
+            known |= k.getSection().equals(section);
+        }
+        if(!known){
+            throw new IllegalArgumentException("Unknown configuration section: " + section);
+        }
+        listeners.addSection(listener, section);
     }
 
-    public static ConfigurationManager getInstance(){
-        if(instance==null){
-            instance = new ConfigurationManager();
+    /**
+     * Returns a method handle of type ()int that always returns the current
+     * value of the key.
+     * Meant to be stored in a static final field and called with invokeExact
+     * from hot code: the JIT treats the value as a constant and only
+     * deoptimizes that code when a reload changes it.
+     * <pre>
+     * static final MethodHandle FPS = ConfigurationManager.getInstance().getIntConstant("medias_fps");
+     * int fps = (int) FPS.invokeExact();
+     * </pre>
+     * Must be called after init.
+     *
+     * @param key Key of a numeric value
+     * @return A ()int method handle
+     * @throws IllegalArgumentException If the key doesn't have a numeric value
+     */
+    public MethodHandle getIntConstant(ConfigKey key){
+        return callSites.get(key, int.class);
+    }
+
+    /**
+     * @param key Configuration file key of a numeric value
+     * @return A ()int method handle
+     * @throws IllegalArgumentException If the key is unknown
+     * @see #getIntConstant(ConfigKey)
+     */
+    public MethodHandle getIntConstant(String key){
+        return getIntConstant(toConfigKey(key));
+    }
+
+    /**
+     * Same as getIntConstant but for string values.
+     * The returned method handle is of type ()String.
+     * Must be called after init.
+     *
+     * @param key Configuration key
+     * @return A ()String method handle
+     */
+    public MethodHandle getStringConstant(ConfigKey key){
+        return callSites.get(key, String.class);
+    }
+
+    /**
+     * @param key Configuration file key
+     * @return A ()String method handle
+     * @throws IllegalArgumentException If the key is unknown
+     * @see #getStringConstant(ConfigKey)
+     */
+    public MethodHandle getStringConstant(String key){
+        return getStringConstant(toConfigKey(key));
+    }
+
+    /**
+     * Removes every subscription of the listener.
+     *
+     * @param listener The listener to remove
+     */
+    public void removeListener(ConfigurationListener listener){
+        listeners.remove(listener);
+    }
+
+    private static ConfigKey toConfigKey(String key){
+        ConfigKey k = ConfigKey.forKey(key);
+        if(k == null){
+            throw new IllegalArgumentException("Unknown configuration key: " + key);
         }
-        return instance;
+        return k;
+    }
+
+    private static ConfigKey[] toConfigKeys(String... keys){
+        ConfigKey[] configKeys = new ConfigKey[keys.length];
+        for(int i = 0; i < keys.length; i++){
+            configKeys[i] = toConfigKey(keys[i]);
+        }
+        return configKeys;
     }
 
     /**
-     * Reads the configuration file into a Properties object.
-     * If the file doesn't exists it creates one with default values.
-     * If there are IO errors, a warning is logged and the application
-     * continues by using the default values.
+     * Starts a background thread that reloads the configuration every time
+     * the configuration file or a configuration fragment changes.
+     * Calling it while already watching does nothing. If the watcher stopped
+     * by itself, for example because the configuration directory was removed,
+     * a new one is started.
+     * The bursts of events of a single save are coalesced, waiting
+     * DEFAULT_QUIET_PERIOD_MILLIS without new events before reloading.
      *
      * @param logger The application logger
      */
-    public void init(Logger logger){
-        properties = setDefaultValues(new Properties());
-        boolean ioError = false;
-        
-        try (FileInputStream configFile = new FileInputStream(CONFIG_PATH)) {
-            properties.load(configFile);
+    public void startWatching(Logger logger){
+        startWatching(logger, DEFAULT_QUIET_PERIOD_MILLIS);
+    }
+
+    /**
+     * Same as startWatching(Logger) with a custom quiet period.
+     *
+     * @param logger The application logger
+     * @param quietPeriodMillis Time without file events to wait before reloading
+     */
+    public synchronized void startWatching(Logger logger, long quietPeriodMillis){
+        if(watcher != null && watcher.isRunning()){
+            return;
         }
-        catch (FileNotFoundException e){
-            try (FileOutputStream out = new FileOutputStream(CONFIG_PATH)) {
-                logger.log(Level.WARNING, "Configuration file not found at {0}. Creating it with default values.", CONFIG_PATH);
-                properties.store(out, "Magma Playout Configuration File");
-            }
-            catch (IOException ex) {
-                ioError = true;
-            }
+
+        try {
+            watcher = new ConfigurationWatcher(this, Paths.get(CONFIG_PATH), fragments.getDir(), logger, quietPeriodMillis);
+            watcher.start();
         }
-        catch (IOException ex) {
-            ioError = true;
+        catch (IOException e){
+            logger.log(Level.WARNING, "Failed watching the configuration file. Changes will need a restart to be applied.", e);
         }
+    }
 
-        if(ioError){
-            logger.log(Level.WARNING, "Failed reading/writing the configuration file. Continuing with default values.");
+    /**
+     * Stops the background configuration watcher, if any.
+     */
+    public synchronized void stopWatching(){
+        if(watcher != null){
+            watcher.stop();
+            watcher = null;
         }
     }
 
     /**
-     * Default configuration values are added here.
+     * Adds the default value of every ConfigKey.
+     * The default values are defined in ConfigKey.
      *
      * @param p Properties object where to load the default values
      * @return Returns the Properties object received as an argument for convenience
      */
     public Properties setDefaultValues(Properties p){
-        p.setProperty(REDIS_SERVER_HOSTNAME, "localhost");
-        p.setProperty(REDIS_SERVER_PORT, "6379");
-        p.setProperty(REDIS_PCCP_CHANNEL, "PCCP");
-        p.setProperty(REDIS_FSCP_CHANNEL, "FSCP");
-        p.setProperty(REDIS_PCR_CHANNEL, "PCR");
-        p.setProperty(REDIS_MSTA_CHANNEL, "MSTA");
-        p.setProperty(REDIS_RECONNECTION_TIMEOUT, "1000");
-
-        p.setProperty(MELTED_SERVER_HOSTNAME, "localhost");
-        p.setProperty(MELTED_SERVER_PORT, "5250");
-        p.setProperty(MELTED_RECONNECTION_TIMEOUT, "1000");
-        p.setProperty(MELTED_RECONNECTION_TRIES, "0");
-        p.setProperty(MELTED_PLAYLIST_MAX_DURATION, "120"); // 2 hs
-        p.setProperty(MELTED_APPENDER_WORKER_FREQ, "5");    // 5 mins
-
-        p.setProperty(DEFAULT_MEDIA_PATH, "/usr/local/magma-playout/default.mlt");
-        p.setProperty(MLT_SPACERS_PATH, "/usr/local/magma-playout/spacers/");
-
-        p.setProperty(MELT_PATH, "/usr/bin/melt/melt");
-        p.setProperty(FILTER_SERVER_HOSTNAME, "http://localhost:3001/filter-banner.html");
-
-        p.setProperty(PLAYOUT_API_URL, "http://localhost:8001/api/");
-        p.setProperty(ADMIN_API_URL, "http://localhost:8080/api/");
-        p.setProperty(MEDIAS_FPS, "60");
-        
-        p.setProperty(DEVOURER_INPUT_DIR, "EDIT ME!--> ~/Videos/input");
-        p.setProperty(DEVOURER_OUTPUT_DIR, "EDIT ME!--> ~/Videos/output");
-        p.setProperty(DEVOURER_MEDIA_DIR, ""); // Not used at the moment. Possiblly to store a remote path
-        p.setProperty(DEVOURER_THUMB_DIR, "EDIT ME!--> /XXX/mp-installer/magma-playout/gui/mp-ui-playout/src/assets/img");
-        p.setProperty(DEVOURER_FFMPEG_ARGS, "-f avi -c:v libx264 -qp 0");
-        p.setProperty(DEVOURER_THUMBS_QTY, "10");
-        
-        p.setProperty(MLT_FRAMEWORK_DIR, "EDIT ME!--> /XXX/mp-installer//MagmaPlayout/core/melted/XXXXXXX/bin/ffmpeg"); //TODO agregar esta config en el script de installer
-        
-        p.setProperty(GUI_THUMB_DIR, "/assets/img/media-thumbnails/");
+        for(ConfigKey k : ConfigKey.values()){
+            p.setProperty(k.getKey(), k.getDefaultValue());
+        }
         
         return p;
     }
 
-    
+    /**
+     * Pins the configuration currently in use.
+     * The returned snapshot never changes, even if the configuration is
+     * reloaded while it's being used, so every value read from it belongs to
+     * the same load. Later calls return the newest configuration.
+     *
+     * @return The configuration in use
+     */
+    public ConfigurationSnapshot getSnapshot(){
+        return snapshot;
+    }
+
+    /**
+     * All the Redis settings from a single configuration load.
+     * Prefer it over the individual getters when several values are used
+     * together, like the host and port of a connection.
+     *
+     * @return The Redis settings in use
+     */
+    public RedisSettings getRedisSettings(){
+        return snapshot.getRedisSettings();
+    }
+
+    /**
+     * @return The Melted settings in use
+     * @see #getRedisSettings()
+     */
+    public MeltedSettings getMeltedSettings(){
+        return snapshot.getMeltedSettings();
+    }
+
+    /**
+     * @return The MP-Devourer settings in use
+     * @see #getRedisSettings()
+     */
+    public DevourerSettings getDevourerSettings(){
+        return snapshot.getDevourerSettings();
+    }
+
+    /**
+     * @param key Configuration key
+     * @return The value of the key as it was written in the configuration file
+     */
+    public String get(ConfigKey key){
+        return snapshot.get(key);
+    }
+
     public String getRedisHost(){
-        return properties.getProperty(REDIS_SERVER_HOSTNAME);
+        return snapshot.getRedisSettings().getHost();
     }
     
     public int getRedisPort(){
-        return Integer.parseInt(properties.getProperty(REDIS_SERVER_PORT));
+        return snapshot.getRedisSettings().getPort();
     }
 
     public String getRedisPccpChannel(){
-        return properties.getProperty(REDIS_PCCP_CHANNEL);
+        return snapshot.getRedisSettings().getPccpChannel();
     }
 
     public String getRedisFscpChannel(){
-        return properties.getProperty(REDIS_FSCP_CHANNEL);
+        return snapshot.getRedisSettings().getFscpChannel();
     }
 
     public String getRedisPcrChannel(){
-        return properties.getProperty(REDIS_PCR_CHANNEL);
+        return snapshot.getRedisSettings().getPcrChannel();
     }
 
     public String getRedisMstaChannel(){
-        return properties.getProperty(REDIS_MSTA_CHANNEL);
+        return snapshot.getRedisSettings().getMstaChannel();
     }
     
+    /**
+     * @return The value in milliseconds. The exact duration is available from getRedisSettings().
+     */
     public int getRedisReconnectionTimeout(){
-        return Integer.parseInt(properties.getProperty(REDIS_RECONNECTION_TIMEOUT));
+        return snapshot.getRedisSettings().getReconnectionTimeout();
     }
 
     public String getMeltedHost(){
-        return properties.getProperty(MELTED_SERVER_HOSTNAME);
+        return snapshot.getMeltedSettings().getHost();
     }
 
     public int getMeltedPort(){
-        return Integer.parseInt(properties.getProperty(MELTED_SERVER_PORT));
+        return snapshot.getMeltedSettings().getPort();
     }
 
+    /**
+     * @return The value in milliseconds. The exact duration is available from getMeltedSettings().
+     */
     public int getMeltedReconnectionTimeout(){
-        return Integer.parseInt(properties.getProperty(MELTED_RECONNECTION_TIMEOUT));
+        return snapshot.getMeltedSettings().getReconnectionTimeout();
     }
 
     public int getMeltedReconnectionTries(){
-        return Integer.parseInt(properties.getProperty(MELTED_RECONNECTION_TRIES));
+        return snapshot.getMeltedSettings().getReconnectionTries();
     }
 
+    /**
+     * @return The value in whole minutes, at least 1. The exact duration is available from getMeltedSettings().
+     */
     public int getMeltedPlaylistMaxDuration(){
-        return Integer.parseInt(properties.getProperty(MELTED_PLAYLIST_MAX_DURATION));
+        return snapshot.getMeltedSettings().getPlaylistMaxDuration();
     }
 
+    /**
+     * @return The value in whole minutes, at least 1. The exact duration is available from getMeltedSettings().
+     */
     public int getMeltedAppenderWorkerFreq(){
-        return Integer.parseInt(properties.getProperty(MELTED_APPENDER_WORKER_FREQ));
+        return snapshot.getMeltedSettings().getAppenderWorkerFreq();
     }
 
     public String getMeltPath(){
-        return properties.getProperty(MELT_PATH);
+        return snapshot.getMeltedSettings().getMeltPath();
     }
 
     public String getDefaultMediaPath(){
-        return properties.getProperty(DEFAULT_MEDIA_PATH);
+        return snapshot.getDefaultMediaPath();
     }
 
     public String getMltSpacersPath(){
-        return properties.getProperty(MLT_SPACERS_PATH);
+        return snapshot.getMltSpacersPath();
+    }
+
+    /**
+     * @return The resolved default media path, with its existence cached. Null if it isn't set.
+     */
+    public CachedPath getDefaultMediaLocation(){
+        return snapshot.getDefaultMediaLocation();
+    }
+
+    /**
+     * @return The resolved spacers directory, with its existence cached. Null if it isn't set.
+     */
+    public CachedPath getMltSpacersLocation(){
+        return snapshot.getMltSpacersLocation();
     }
 
     public String getFilterServerHost(){
-        return properties.getProperty(FILTER_SERVER_HOSTNAME);
+        return snapshot.getFilterServerHost();
     }
 
     public String getPlayoutAPIRestBaseUrl(){
-        return properties.getProperty(PLAYOUT_API_URL);
+        return snapshot.getPlayoutAPIRestBaseUrl();
     }
 
     public String getAdminAPIRestBaseUrl(){
-        return properties.getProperty(ADMIN_API_URL);
+        return snapshot.getAdminAPIRestBaseUrl();
+    }
+
+    /**
+     * @return The filter server URL
+     */
+    public URI getFilterServerUri(){
+        return snapshot.getFilterServerUri();
+    }
+
+    /**
+     * @return Resolver of the mp-playout-api endpoints
+     */
+    public EndpointResolver getPlayoutApi(){
+        return snapshot.getPlayoutApi();
+    }
+
+    /**
+     * @return Resolver of the mp-admin-api endpoints
+     */
+    public EndpointResolver getAdminApi(){
+        return snapshot.getAdminApi();
     }
 
     public int getMediasFPS(){
-        return Integer.parseInt(properties.getProperty(MEDIAS_FPS));
+        return snapshot.getMediasFPS();
+    }
+
+    /**
+     * @return Frame, millisecond and timecode conversions for the medias FPS
+     */
+    public FrameTiming getFrameTiming(){
+        return snapshot.getFrameTiming();
     }
 
     public String getDevourerInputDir() {
-        return properties.getProperty(DEVOURER_INPUT_DIR);
+        return snapshot.getDevourerSettings().getInputDir();
     }
 
     public String getDevourerOutputDir() {
-        return properties.getProperty(DEVOURER_OUTPUT_DIR);
+        return snapshot.getDevourerSettings().getOutputDir();
     }
 
     public String getDevourerMediaDir() {
-        return properties.getProperty(DEVOURER_MEDIA_DIR);
+        return snapshot.getDevourerSettings().getMediaDir();
     }
 
     public String getDevourerThumbDir() {
-        return properties.getProperty(DEVOURER_THUMB_DIR);
+        return snapshot.getDevourerSettings().getThumbDir();
     }
     
     public String getDevourerThumbsQty() {
-        return properties.getProperty(DEVOURER_THUMBS_QTY);
+        return snapshot.get(ConfigKey.DEVOURER_THUMBS_QTY);
     }
 
     public String getMltFrameworkPath() {
-        return properties.getProperty(MLT_FRAMEWORK_DIR);
+        return snapshot.getDevourerSettings().getMltFrameworkPath();
     }
 
     public String getDevourerFfmpegArgs(){
-        return properties.getProperty(DEVOURER_FFMPEG_ARGS);
+        return snapshot.getDevourerSettings().getFfmpegArgs();
     }
     
     public String getGuiThumbDir() {
-        return properties.getProperty(GUI_THUMB_DIR);
+        return snapshot.getGuiThumbDir();
     }
     
     /**
@@ -306,37 +775,50 @@ public class ConfigurationManager {
      * @param logger
      */
     public void printConfig(Logger logger){
+        ConfigurationSnapshot s = snapshot;
         logger.log(Level.INFO,
             "Loaded configuration:\n"
             +"\n\tconfig_path: " + ConfigurationManager.CONFIG_PATH
-            +"\n\tredis_server_hostname: " + properties.getProperty(REDIS_SERVER_HOSTNAME)
-            +"\n\tredis_server_port: " + properties.getProperty(REDIS_SERVER_PORT)
-            +"\n\tredis_pccp_channel: " + properties.getProperty(REDIS_PCCP_CHANNEL)
-            +"\n\tredis_fscp_channel: " + properties.getProperty(REDIS_FSCP_CHANNEL)
-            +"\n\tredis_pcr_channel: " + properties.getProperty(REDIS_PCR_CHANNEL)
-            +"\n\tredis_msta_channel: " + properties.getProperty(REDIS_MSTA_CHANNEL)
-            +"\n\tredis_reconnection_timeout: " + properties.getProperty(REDIS_RECONNECTION_TIMEOUT)
-            +"\n\tmelted_server_hostname: " + properties.getProperty(MELTED_SERVER_HOSTNAME)
-            +"\n\tmelted_server_port: " + properties.getProperty(MELTED_SERVER_PORT)
-            +"\n\tmelted_reconnection_timeout: " + properties.getProperty(MELTED_RECONNECTION_TIMEOUT)
-            +"\n\tmelted_reconnection_tries: " + properties.getProperty(MELTED_RECONNECTION_TRIES)
-            +"\n\tmelted_playlist_max_duration: " + properties.getProperty(MELTED_PLAYLIST_MAX_DURATION)
-            +"\n\tmelted_appender_worker_freq: " + properties.getProperty(MELTED_APPENDER_WORKER_FREQ)
-            +"\n\tmelt_path: " + properties.getProperty(MELT_PATH)
-            +"\n\tdefault_media_path: " + properties.getProperty(DEFAULT_MEDIA_PATH)
-            +"\n\tmlt_spacers_path: " + properties.getProperty(MLT_SPACERS_PATH)
+            +"\n\tconfig_fragments_path: " + ConfigurationManager.FRAGMENTS_PATH
+            +"\n\tredis_server_hostname: " + s.get(ConfigKey.REDIS_SERVER_HOSTNAME)
+            +"\n\tredis_server_port: " + s.get(ConfigKey.REDIS_SERVER_PORT)
+            +"\n\tredis_servers: " + s.get(ConfigKey.REDIS_SERVERS)
+            +"\n\tredis_pccp_channel: " + s.get(ConfigKey.REDIS_PCCP_CHANNEL)
+            +"\n\tredis_fscp_channel: " + s.get(ConfigKey.REDIS_FSCP_CHANNEL)
+            +"\n\tredis_pcr_channel: " + s.get(ConfigKey.REDIS_PCR_CHANNEL)
+            +"\n\tredis_msta_channel: " + s.get(ConfigKey.REDIS_MSTA_CHANNEL)
+            +"\n\tredis_reconnection_timeout: " + s.get(ConfigKey.REDIS_RECONNECTION_TIMEOUT)
+            +"\n\tredis_reconnection_backoff_multiplier: " + s.get(ConfigKey.REDIS_RECONNECTION_BACKOFF_MULTIPLIER)
+            +"\n\tredis_reconnection_max_delay: " + s.get(ConfigKey.REDIS_RECONNECTION_MAX_DELAY)
+            +"\n\tredis_reconnection_jitter: " + s.get(ConfigKey.REDIS_RECONNECTION_JITTER)
+            +"\n\tredis_pool_size: " + s.get(ConfigKey.REDIS_POOL_SIZE)
+            +"\n\tredis_command_timeout: " + s.get(ConfigKey.REDIS_COMMAND_TIMEOUT)
+            +"\n\tredis_pipeline_depth: " + s.get(ConfigKey.REDIS_PIPELINE_DEPTH)
+            +"\n\tredis_pubsub_buffer_size: " + s.get(ConfigKey.REDIS_PUBSUB_BUFFER_SIZE)
+            +"\n\tmelted_server_hostname: " + s.get(ConfigKey.MELTED_SERVER_HOSTNAME)
+            +"\n\tmelted_server_port: " + s.get(ConfigKey.MELTED_SERVER_PORT)
+            +"\n\tmelted_reconnection_timeout: " + s.get(ConfigKey.MELTED_RECONNECTION_TIMEOUT)
+            +"\n\tmelted_reconnection_tries: " + s.get(ConfigKey.MELTED_RECONNECTION_TRIES)
+            +"\n\tmelted_reconnection_backoff_multiplier: " + s.get(ConfigKey.MELTED_RECONNECTION_BACKOFF_MULTIPLIER)
+            +"\n\tmelted_reconnection_max_delay: " + s.get(ConfigKey.MELTED_RECONNECTION_MAX_DELAY)
+            +"\n\tmelted_reconnection_jitter: " + s.get(ConfigKey.MELTED_RECONNECTION_JITTER)
+            +"\n\tmelted_playlist_max_duration: " + s.get(ConfigKey.MELTED_PLAYLIST_MAX_DURATION)
+            +"\n\tmelted_appender_worker_freq: " + s.get(ConfigKey.MELTED_APPENDER_WORKER_FREQ)
+            +"\n\tmelt_path: " + s.get(ConfigKey.MELT_PATH)
+            +"\n\tdefault_media_path: " + s.get(ConfigKey.DEFAULT_MEDIA_PATH)
+            +"\n\tmlt_spacers_path: " + s.get(ConfigKey.MLT_SPACERS_PATH)
             //+"\n\tfilter_server_url_key: " + properties.getProperty(FILTER_SERVER_URL_KEY)
-            +"\n\tmedias_fps: " + properties.getProperty(MEDIAS_FPS)
-            +"\n\tdevourer_input_dir: " + properties.getProperty(DEVOURER_INPUT_DIR)
-            +"\n\tdevourer_output_dir: " + properties.getProperty(DEVOURER_OUTPUT_DIR)
+            +"\n\tmedias_fps: " + s.get(ConfigKey.MEDIAS_FPS)
+            +"\n\tdevourer_input_dir: " + s.get(ConfigKey.DEVOURER_INPUT_DIR)
+            +"\n\tdevourer_output_dir: " + s.get(ConfigKey.DEVOURER_OUTPUT_DIR)
             //+"\n\tdevourer_media_dir: " + properties.getProperty(DEVOURER_MEDIA_DIR) // Not implemented
-            +"\n\tdevourer_thumb_dir: " + properties.getProperty(DEVOURER_THUMB_DIR)
-            +"\n\tmlt_framework_dir: " + properties.getProperty(MLT_FRAMEWORK_DIR)
-            +"\n\tdevourer_ffmpeg_args: " + properties.getProperty(DEVOURER_FFMPEG_ARGS)
-            +"\n\tplayout_api_url: " + properties.getProperty(PLAYOUT_API_URL)
-            +"\n\tadmin_api_url: " + properties.getProperty(ADMIN_API_URL)
-            +"\n\tgui_thumb_dir: " + properties.getProperty(GUI_THUMB_DIR)
-            +"\n\tdevourer_thumbs_qty: " + properties.getProperty(DEVOURER_THUMBS_QTY)
+            +"\n\tdevourer_thumb_dir: " + s.get(ConfigKey.DEVOURER_THUMB_DIR)
+            +"\n\tmlt_framework_dir: " + s.get(ConfigKey.MLT_FRAMEWORK_DIR)
+            +"\n\tdevourer_ffmpeg_args: " + s.get(ConfigKey.DEVOURER_FFMPEG_ARGS)
+            +"\n\tplayout_api_url: " + s.get(ConfigKey.PLAYOUT_API_URL)
+            +"\n\tadmin_api_url: " + s.get(ConfigKey.ADMIN_API_URL)
+            +"\n\tgui_thumb_dir: " + s.get(ConfigKey.GUI_THUMB_DIR)
+            +"\n\tdevourer_thumbs_qty: " + s.get(ConfigKey.DEVOURER_THUMBS_QTY)
             +"\n"
         );
     }
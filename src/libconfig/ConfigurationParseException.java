@@ -0,0 +1,45 @@
+package libconfig;
+
+import java.io.IOException;
+
+/**
+ * Thrown when the configuration file has invalid syntax.
+ * Reports the line and column where the error was found.
+ *
+ * @author rombus
+ */
+public class ConfigurationParseException extends IOException {
+    private static final long serialVersionUID = 1L;
+
+    private final String reason;
+    private final int line;
+    private final int column;
+
+    public ConfigurationParseException(String reason, int line, int column){
+        super(reason + " (line " + line + ", column " + column + ")");
+        this.reason = reason;
+        this.line = line;
+        this.column = column;
+    }
+
+    /**
+     * @return The error description, without the line and column
+     */
+    public String getReason(){
+        return reason;
+    }
+
+    /**
+     * @return The line of the error, starting at 1
+     */
+    public int getLine(){
+        return line;
+    }
+
+    /**
+     * @return The column of the error, starting at 1
+     */
+    public int getColumn(){
+        return column;
+    }
+}
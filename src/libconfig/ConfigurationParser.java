@@ -0,0 +1,222 @@
+package libconfig;
+
+import java.nio.file.Path;
+
+/**
+ * Parser of the configuration file.
+ * Understands the same syntax as java.util.Properties (comments, key=value,
+ * key:value, key value, escapes and line continuations) and reads the file as
+ * ISO-8859-1 like Properties.load(InputStream) does.
+ *
+ * Unlike Properties.load it works on the whole file at once, decodes the bytes
+ * directly while tokenizing, stores the values straight into an array indexed
+ * by ConfigKey ordinal and reports the line and column of syntax errors.
+ * Unknown keys are ignored and keys that aren't in the file are left null,
+ * so the result can be layered over other sources.
+ *
+ * @author rombus
+ */
+final class ConfigurationParser {
+    private final byte[] data;
+    private final int length;
+
+    private int pos;
+    private int line = 1;
+    private int lineStart;
+
+    private char[] buf = new char[128];
+    private int size;
+
+    private ConfigurationParser(byte[] data, int length){
+        this.data = data;
+        this.length = length;
+    }
+
+    /**
+     * Same as parse(byte[], int) but the errors mention the file the data came from.
+     *
+     * @param data Contents of the configuration file
+     * @param length Number of bytes of data to parse
+     * @param file The file the data was read from
+     * @return Values indexed by ConfigKey ordinal, null for the keys missing in the file
+     * @throws ConfigurationParseException If the data has a syntax error
+     */
+    static String[] parse(byte[] data, int length, Path file) throws ConfigurationParseException {
+        try {
+            return parse(data, length);
+        }
+        catch (ConfigurationParseException e){
+            throw new ConfigurationParseException(file + ": " + e.getReason(), e.getLine(), e.getColumn());
+        }
+    }
+
+    /**
+     * @param data Contents of a configuration file
+     * @param length Number of bytes of data to parse
+     * @return Values indexed by ConfigKey ordinal, null for the keys missing in the data
+     * @throws ConfigurationParseException If the data has a syntax error
+     */
+    static String[] parse(byte[] data, int length) throws ConfigurationParseException {
+        return new ConfigurationParser(data, length).parse();
+    }
+
+    /**
+     * @return A new array with the default value of every key
+     */
+    static String[] defaultValues(){
+        ConfigKey[] keys = ConfigKey.values();
+        String[] values = new String[keys.length];
+        for(ConfigKey k : keys){
+            values[k.ordinal()] = k.getDefaultValue();
+        }
+        return values;
+    }
+
+    private String[] parse() throws ConfigurationParseException {
+        String[] values = new String[ConfigKey.values().length];
+
+        while(nextKey()){
+            size = 0;
+            readToken(true);
+            ConfigKey key = ConfigKey.forKey(new String(buf, 0, size));
+
+            skipSeparator();
+            size = 0;
+            readToken(false);
+
+            if(key != null){
+                values[key.ordinal()] = new String(buf, 0, size);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Skips blank lines, comments and leading whitespace.
+     *
+     * @return false when the end of the data was reached
+     */
+    private boolean nextKey(){
+        while(pos < length){
+            int c = data[pos] & 0xFF;
+            if(isWhitespace(c)){
+                pos++;
+            }
+            else if(c == '\r' || c == '\n'){
+                skipLineTerminator();
+            }
+            else if(c == '#' || c == '!'){
+                while(pos < length && data[pos] != '\r' && data[pos] != '\n'){
+                    pos++;
+                }
+            }
+            else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Reads a key or a value into buf, resolving escapes and line continuations.
+     * Stops at the end of the line or, for keys, at the first unescaped
+     * separator.
+     */
+    private void readToken(boolean key) throws ConfigurationParseException {
+        while(pos < length){
+            int c = data[pos] & 0xFF;
+            if(c == '\r' || c == '\n'){
+                return;
+            }
+            if(key && (c == '=' || c == ':' || isWhitespace(c))){
+                return;
+            }
+
+            if(c != '\\'){
+                append((char) c);
+                pos++;
+                continue;
+            }
+
+            int escapeColumn = pos - lineStart + 1;
+            pos++;
+            if(pos >= length){
+                return;
+            }
+
+            c = data[pos] & 0xFF;
+            if(c == '\r' || c == '\n'){
+                // Line continuation: the leading whitespace of the next line is ignored
+                skipLineTerminator();
+                while(pos < length && isWhitespace(data[pos] & 0xFF)){
+                    pos++;
+                }
+            }
+            else if(c == 'u'){
+                pos++;
+                append(readUnicode(escapeColumn));
+            }
+            else {
+                append(unescape(c));
+                pos++;
+            }
+        }
+    }
+
+    private char readUnicode(int escapeColumn) throws ConfigurationParseException {
+        int value = 0;
+        for(int i = 0; i < 4; i++){
+            int digit = pos < length ? Character.digit(data[pos] & 0xFF, 16) : -1;
+            if(digit < 0){
+                throw new ConfigurationParseException("Malformed \\uXXXX escape", line, escapeColumn);
+            }
+            value = (value << 4) | digit;
+            pos++;
+        }
+        return (char) value;
+    }
+
+    private void skipSeparator(){
+        while(pos < length && isWhitespace(data[pos] & 0xFF)){
+            pos++;
+        }
+        if(pos < length && (data[pos] == '=' || data[pos] == ':')){
+            pos++;
+        }
+        while(pos < length && isWhitespace(data[pos] & 0xFF)){
+            pos++;
+        }
+    }
+
+    private void skipLineTerminator(){
+        if(data[pos] == '\r' && pos + 1 < length && data[pos + 1] == '\n'){
+            pos++;
+        }
+        pos++;
+        line++;
+        lineStart = pos;
+    }
+
+    private void append(char c){
+        if(size == buf.length){
+            char[] bigger = new char[buf.length * 2];
+            System.arraycopy(buf, 0, bigger, 0, size);
+            buf = bigger;
+        }
+        buf[size++] = c;
+    }
+
+    private static char unescape(int c){
+        switch(c){
+            case 't': return '\t';
+            case 'n': return '\n';
+            case 'r': return '\r';
+            case 'f': return '\f';
+            default: return (char) c;
+        }
+    }
+
+    private static boolean isWhitespace(int c){
+        return c == ' ' || c == '\t' || c == '\f';
+    }
+}
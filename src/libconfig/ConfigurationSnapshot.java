@@ -0,0 +1,163 @@
+package libconfig;
+
+import java.net.URI;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Immutable view of the configuration values.
+ * All the values are parsed once when the snapshot is built so reading them
+ * is a plain field access. The raw values are kept in an array indexed by
+ * the ConfigKey ordinals.
+ *
+ * A reload publishes a new snapshot and never modifies an existing one, so
+ * an operation that needs several values consistent with each other can
+ * hold on to the snapshot returned by ConfigurationManager.getSnapshot() and
+ * read everything from it.
+ *
+ * @author rombus
+ */
+public final class ConfigurationSnapshot {
+    private final String[] values;
+
+    private final RedisSettings redis;
+    private final MeltedSettings melted;
+    private final DevourerSettings devourer;
+
+    private final String defaultMediaPath;
+    private final String mltSpacersPath;
+    private final CachedPath defaultMediaLocation;
+    private final CachedPath mltSpacersLocation;
+    private final String filterServerHost;
+    private final String playoutApiUrl;
+    private final String adminApiUrl;
+    private final URI filterServerUri;
+    private final EndpointResolver playoutApi;
+    private final EndpointResolver adminApi;
+    private final int mediasFps;
+    private final FrameTiming frameTiming;
+    private final String guiThumbDir;
+
+    /**
+     * Parses every key of the given values.
+     *
+     * @param values Raw values indexed by ConfigKey ordinal, already validated. It must not be modified afterwards.
+     */
+    ConfigurationSnapshot(String[] values){
+        this.values = values;
+
+        redis = new RedisSettings(this);
+        melted = new MeltedSettings(this);
+        devourer = new DevourerSettings(this);
+
+        // Expanded here too, the callers of the string getters don't expect a ~
+        defaultMediaPath = CachedPath.expandHome(get(ConfigKey.DEFAULT_MEDIA_PATH));
+        mltSpacersPath = CachedPath.expandHome(get(ConfigKey.MLT_SPACERS_PATH));
+        defaultMediaLocation = CachedPath.resolve(defaultMediaPath);
+        mltSpacersLocation = CachedPath.resolve(mltSpacersPath);
+        filterServerHost = get(ConfigKey.FILTER_SERVER_HOSTNAME);
+        playoutApiUrl = get(ConfigKey.PLAYOUT_API_URL);
+        adminApiUrl = get(ConfigKey.ADMIN_API_URL);
+        filterServerUri = URI.create(filterServerHost.trim());
+        playoutApi = new EndpointResolver(playoutApiUrl);
+        adminApi = new EndpointResolver(adminApiUrl);
+        mediasFps = Integer.parseInt(get(ConfigKey.MEDIAS_FPS));
+        frameTiming = FrameTiming.of(mediasFps);
+        guiThumbDir = get(ConfigKey.GUI_THUMB_DIR);
+    }
+
+    /**
+     * @param key Configuration key
+     * @return The value of the key as it was written in the configuration file
+     */
+    public String get(ConfigKey key){
+        return values[key.ordinal()];
+    }
+
+    public RedisSettings getRedisSettings(){
+        return redis;
+    }
+
+    public MeltedSettings getMeltedSettings(){
+        return melted;
+    }
+
+    public DevourerSettings getDevourerSettings(){
+        return devourer;
+    }
+
+    public String getDefaultMediaPath(){
+        return defaultMediaPath;
+    }
+
+    public String getMltSpacersPath(){
+        return mltSpacersPath;
+    }
+
+    /**
+     * @return The resolved default media path, or null if it isn't set
+     */
+    public CachedPath getDefaultMediaLocation(){
+        return defaultMediaLocation;
+    }
+
+    /**
+     * @return The resolved spacers directory, or null if it isn't set
+     */
+    public CachedPath getMltSpacersLocation(){
+        return mltSpacersLocation;
+    }
+
+    public String getFilterServerHost(){
+        return filterServerHost;
+    }
+
+    /**
+     * @return The filter server URL
+     */
+    public URI getFilterServerUri(){
+        return filterServerUri;
+    }
+
+    public String getPlayoutAPIRestBaseUrl(){
+        return playoutApiUrl;
+    }
+
+    public String getAdminAPIRestBaseUrl(){
+        return adminApiUrl;
+    }
+
+    public EndpointResolver getPlayoutApi(){
+        return playoutApi;
+    }
+
+    public EndpointResolver getAdminApi(){
+        return adminApi;
+    }
+
+    public int getMediasFPS(){
+        return mediasFps;
+    }
+
+    public FrameTiming getFrameTiming(){
+        return frameTiming;
+    }
+
+    public String getGuiThumbDir(){
+        return guiThumbDir;
+    }
+
+    /**
+     * @param other Values indexed by ConfigKey ordinal
+     * @return The sections of the keys whose values differ from this snapshot
+     */
+    Set<String> changedSections(String[] other){
+        Set<String> sections = new HashSet<>();
+        for(ConfigKey k : ConfigKey.values()){
+            if(!values[k.ordinal()].equals(other[k.ordinal()])){
+                sections.add(k.getSection());
+            }
+        }
+        return sections;
+    }
+}
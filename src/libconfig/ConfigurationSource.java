@@ -0,0 +1,23 @@
+package libconfig;
+
+import java.io.IOException;
+
+/**
+ * A layer of configuration values.
+ * Layers are merged in order on top of the default values, so a key set in
+ * a later layer overrides the same key of the previous ones.
+ *
+ * @author rombus
+ */
+interface ConfigurationSource {
+    /**
+     * @return A description of the source for the logs
+     */
+    String getName();
+
+    /**
+     * @return Values indexed by ConfigKey ordinal, null for the keys this source doesn't set
+     * @throws IOException If the source can't be read
+     */
+    String[] read() throws IOException;
+}
@@ -0,0 +1,46 @@
+package libconfig;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Checks the configuration values against the constraints of their keys.
+ * Every key is checked so all the problems are reported at once.
+ *
+ * @author rombus
+ */
+final class ConfigurationValidator {
+    private ConfigurationValidator(){
+    }
+
+    /**
+     * @param values Raw values indexed by ConfigKey ordinal
+     * @return A description of every invalid value. Empty if all are valid.
+     */
+    static List<String> validate(String[] values){
+        return validate(values, null);
+    }
+
+    /**
+     * Validates only the keys of some sections.
+     * Used on reloads, where the sections that didn't change were already validated.
+     *
+     * @param values Raw values indexed by ConfigKey ordinal
+     * @param sections The sections to validate, or null for all of them
+     * @return A description of every invalid value. Empty if all are valid.
+     */
+    static List<String> validate(String[] values, Set<String> sections){
+        List<String> violations = new ArrayList<>();
+        for(ConfigKey k : ConfigKey.values()){
+            if(sections != null && !sections.contains(k.getSection())){
+                continue;
+            }
+            String violation = k.getConstraint().check(values[k.ordinal()]);
+            if(violation != null){
+                violations.add(k.getKey() + ": " + violation);
+            }
+        }
+        return violations;
+    }
+}
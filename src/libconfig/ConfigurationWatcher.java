@@ -0,0 +1,161 @@
+package libconfig;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Watches the directory of the configuration file and the configuration
+ * fragments directory, and asks the ConfigurationManager to reload every time
+ * the file or a fragment changes.
+ * Runs on its own daemon thread.
+ *
+ * Editors and deployment tools usually save through a temporary file and a
+ * rename, which produces a burst of events and a moment where the file
+ * doesn't exist. Events are coalesced until a quiet period passes without
+ * new ones, so each save produces a single reload. Events of other files in
+ * the same directory are ignored.
+ *
+ * @author rombus
+ */
+class ConfigurationWatcher implements Runnable {
+    /**
+     * Longest wait before reloading, in quiet periods since the first event.
+     */
+    private static final int MAX_WAIT_QUIET_PERIODS = 10;
+
+    private final ConfigurationManager manager;
+    private final Path configFile;
+    private final Path fragmentsDir;
+    private final Logger logger;
+    private final long quietPeriodNanos;
+    private final WatchService watchService;
+    private final Thread thread;
+    private volatile boolean stopped;
+
+    /**
+     * Registers the configuration directories in a new WatchService.
+     *
+     * @param manager The manager that will be asked to reload
+     * @param configFile Path of the configuration file
+     * @param fragmentsDir Directory of the configuration fragments. It's only watched if it exists.
+     * @param logger The application logger
+     * @param quietPeriodMillis Time without events to wait before reloading
+     * @throws IOException If the directory can't be watched
+     */
+    ConfigurationWatcher(ConfigurationManager manager, Path configFile, Path fragmentsDir, Logger logger, long quietPeriodMillis) throws IOException {
+        this.manager = manager;
+        this.configFile = configFile.toAbsolutePath();
+        this.fragmentsDir = fragmentsDir.toAbsolutePath();
+        this.logger = logger;
+        this.quietPeriodNanos = TimeUnit.MILLISECONDS.toNanos(quietPeriodMillis);
+
+        watchService = FileSystems.getDefault().newWatchService();
+        this.configFile.getParent().register(watchService,
+                StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY,
+                StandardWatchEventKinds.ENTRY_DELETE);
+        if(Files.isDirectory(this.fragmentsDir)){
+            this.fragmentsDir.register(watchService,
+                    StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY,
+                    StandardWatchEventKinds.ENTRY_DELETE);
+        }
+
+        thread = new Thread(this, "mp-libconfig-watcher");
+        thread.setDaemon(true);
+    }
+
+    void start(){
+        thread.start();
+    }
+
+    /**
+     * Stops the watcher thread and releases the WatchService.
+     */
+    void stop(){
+        stopped = true;
+        try {
+            watchService.close();
+        }
+        catch (IOException e) {
+            logger.log(Level.FINE, "Failed closing the configuration watch service.", e);
+        }
+        thread.interrupt();
+    }
+
+    /**
+     * @return false once the watcher was stopped, by stop() or because the
+     * configuration directory stopped being accessible
+     */
+    boolean isRunning(){
+        return !stopped && thread.isAlive();
+    }
+
+    private boolean isConfiguration(Path dir, Object name){
+        if(dir.equals(fragmentsDir)){
+            return name.toString().endsWith(".conf");
+        }
+        return configFile.getFileName().equals(name);
+    }
+
+    @Override
+    public void run(){
+        try {
+            while(!Thread.currentThread().isInterrupted()){
+                if(!handle(watchService.take())){
+                    continue;
+                }
+
+                // Coalesce the rest of the burst until it's quiet. Only
+                // configuration events restart the quiet period, and the
+                // wait is bounded in case the configuration keeps changing.
+                long now = System.nanoTime();
+                long quietUntil = now + quietPeriodNanos;
+                long deadline = now + quietPeriodNanos * MAX_WAIT_QUIET_PERIODS;
+                long wait;
+                while((wait = Math.min(quietUntil, deadline) - System.nanoTime()) > 0){
+                    WatchKey key = watchService.poll(wait, TimeUnit.NANOSECONDS);
+                    if(key != null && handle(key)){
+                        quietUntil = System.nanoTime() + quietPeriodNanos;
+                    }
+                }
+
+                logger.log(Level.INFO, "Configuration changed. Reloading it.");
+                manager.reload(logger);
+            }
+        }
+        catch (InterruptedException | ClosedWatchServiceException e) {
+            // Watcher stopped
+        }
+    }
+
+    /**
+     * Consumes the events of a key.
+     *
+     * @return true if any event affects the configuration
+     */
+    private boolean handle(WatchKey key){
+        boolean changed = false;
+        for(WatchEvent<?> event : key.pollEvents()){
+            if(event.kind() == StandardWatchEventKinds.OVERFLOW || isConfiguration((Path) key.watchable(), event.context())){
+                changed = true;
+            }
+        }
+
+        if(!key.reset() && key.watchable().equals(configFile.getParent())){
+            logger.log(Level.WARNING, "Configuration directory is no longer accessible. Stopping the configuration watcher.");
+            stop();
+        }
+        return changed;
+    }
+}
@@ -0,0 +1,121 @@
+package libconfig;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MutableCallSite;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Exposes configuration values through MutableCallSites bound to constant
+ * method handles. A handle stored in a static final field is treated by the
+ * JIT as a constant, so the value gets folded into the compiled code and the
+ * code is only deoptimized when a reload changes that value.
+ * Call sites are created on demand, so nothing is done until the first one
+ * is requested.
+ *
+ * @author rombus
+ */
+class ConstantCallSites {
+    private final Map<String, Site> sites = new HashMap<>();
+    private ConfigurationSnapshot current;
+
+    /**
+     * Returns the invoker of the call site of the key, creating it if needed.
+     *
+     * @param key Configuration key
+     * @param type int.class or String.class
+     * @return A ()int or ()String method handle
+     * @throws IllegalArgumentException If an int is requested for a non numeric key
+     * @throws IllegalStateException If the configuration wasn't loaded yet
+     */
+    synchronized MethodHandle get(ConfigKey key, Class<?> type){
+        if(current == null){
+            throw new IllegalStateException("The configuration must be initialized before requesting constants.");
+        }
+
+        String id = type.getName() + ':' + key.getKey();
+        Site site = sites.get(id);
+        if(site == null){
+            site = new Site(key, type, value(key, current.get(key), type));
+            sites.put(id, site);
+        }
+        return site.invoker;
+    }
+
+    /**
+     * Rebinds the call sites whose values changed in the new snapshot.
+     * Call sites whose values didn't change are left untouched so the code
+     * that folded them isn't deoptimized.
+     *
+     * @param current Snapshot now in use
+     * @param logger The application logger
+     */
+    synchronized void update(ConfigurationSnapshot current, Logger logger){
+        this.current = current;
+        if(sites.isEmpty()){
+            return;
+        }
+
+        List<MutableCallSite> changed = new ArrayList<>();
+        for(Site site : sites.values()){
+            Object value;
+            try {
+                value = value(site.key, current.get(site.key), site.type);
+            }
+            catch (IllegalArgumentException e){
+                logger.log(Level.WARNING, "Invalid numeric value for {0}. Keeping its constant value.", site.key);
+                continue;
+            }
+
+            if(!Objects.equals(value, site.value)){
+                site.bind(value);
+                changed.add(site.callSite);
+            }
+        }
+
+        if(!changed.isEmpty()){
+            MutableCallSite.syncAll(changed.toArray(new MutableCallSite[changed.size()]));
+        }
+    }
+
+    /**
+     * Durations are converted to ints in the unit of their key, so they keep
+     * the values they had before unit suffixes were supported.
+     */
+    private static Object value(ConfigKey key, String raw, Class<?> type){
+        if(type != int.class){
+            return raw;
+        }
+        if(key.getUnit() != null){
+            return Durations.toInt(Durations.parse(raw, key.getUnit()), key.getUnit());
+        }
+        return Integer.parseInt(raw);
+    }
+
+    private static class Site {
+        private final ConfigKey key;
+        private final Class<?> type;
+        private final MutableCallSite callSite;
+        private final MethodHandle invoker;
+        private Object value;
+
+        Site(ConfigKey key, Class<?> type, Object value){
+            this.key = key;
+            this.type = type;
+            this.callSite = new MutableCallSite(MethodHandles.constant(type, value));
+            this.invoker = callSite.dynamicInvoker();
+            this.value = value;
+        }
+
+        void bind(Object value){
+            this.value = value;
+            callSite.setTarget(MethodHandles.constant(type, value));
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package libconfig;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A rule that the value of a configuration key must follow.
+ * Constraints are declared next to each key in ConfigKey and checked by
+ * ConfigurationValidator every time the configuration is loaded.
+ *
+ * @author rombus
+ */
+interface Constraint {
+    /**
+     * Value of the keys whose default is computed at runtime.
+     */
+    String AUTO = "auto";
+
+    /**
+     * @param value The raw value of the key
+     * @return null if the value is valid, otherwise the reason why it isn't
+     */
+    String check(String value);
+
+    /**
+     * Accepts any value.
+     */
+    static Constraint any(){
+        return value -> null;
+    }
+
+    static Constraint notEmpty(){
+        return value -> value.trim().isEmpty() ? "must not be empty" : null;
+    }
+
+    /**
+     * An integer between min and max, both inclusive.
+     */
+    static Constraint range(int min, int max){
+        return value -> {
+            int i;
+            try {
+                i = Integer.parseInt(value);
+            }
+            catch (NumberFormatException e){
+                return "'" + value + "' is not an integer";
+            }
+            if(i < min || i > max){
+                return i + " is out of range [" + min + ", " + max + "]";
+            }
+            return null;
+        };
+    }
+
+    /**
+     * A decimal number between min and max, both inclusive.
+     */
+    static Constraint decimal(double min, double max){
+        return value -> {
+            double d;
+            try {
+                d = Double.parseDouble(value);
+            }
+            catch (NumberFormatException e){
+                return "'" + value + "' is not a number";
+            }
+            if(!(d >= min && d <= max)){
+                return value + " is out of range [" + min + ", " + max + "]";
+            }
+            return null;
+        };
+    }
+
+    /**
+     * "auto" or a value that follows the given constraint.
+     */
+    static Constraint autoOr(Constraint constraint){
+        return value -> AUTO.equals(value) ? null : constraint.check(value);
+    }
+
+    static Constraint positive(){
+        return range(1, Integer.MAX_VALUE);
+    }
+
+    static Constraint nonNegative(){
+        return range(0, Integer.MAX_VALUE);
+    }
+
+    static Constraint port(){
+        return range(1, 65535);
+    }
+
+    /**
+     * A duration, like "500ms" or "5s".
+     *
+     * @param defaultUnit Unit of the numbers without a suffix
+     * @param allowZero Whether a zero duration is valid
+     */
+    static Constraint duration(TimeUnit defaultUnit, boolean allowZero){
+        return value -> {
+            Duration d;
+            try {
+                d = Durations.parse(value, defaultUnit);
+            }
+            catch (IllegalArgumentException e){
+                return e.getMessage();
+            }
+            if(d.isNegative() || (!allowZero && d.isZero())){
+                return "'" + value + "' must be " + (allowZero ? "0 or more" : "more than 0");
+            }
+            return null;
+        };
+    }
+
+    static Constraint positiveDuration(TimeUnit defaultUnit){
+        return duration(defaultUnit, false);
+    }
+
+    static Constraint nonNegativeDuration(TimeUnit defaultUnit){
+        return duration(defaultUnit, true);
+    }
+
+    /**
+     * A command line with balanced quotes.
+     *
+     * @see ShellWords
+     */
+    static Constraint shellWords(){
+        return value -> {
+            try {
+                ShellWords.split(value);
+                return null;
+            }
+            catch (IllegalArgumentException e){
+                return "'" + value + "' is not a valid argument list: " + e.getMessage();
+            }
+        };
+    }
+
+    /**
+     * Empty or a comma separated list of host:port pairs.
+     */
+    static Constraint hostPortList(){
+        return value -> {
+            if(value.trim().isEmpty()){
+                return null;
+            }
+            try {
+                RedisEndpoint.parseList(value);
+                return null;
+            }
+            catch (IllegalArgumentException e){
+                return e.getMessage();
+            }
+        };
+    }
+
+    /**
+     * An absolute URL with scheme and host, like http://localhost:8001/api/
+     */
+    static Constraint url(){
+        return value -> {
+            try {
+                URI uri = new URI(value);
+                if(uri.getScheme() == null || uri.getHost() == null){
+                    return "'" + value + "' is not an absolute URL";
+                }
+                return null;
+            }
+            catch (URISyntaxException e){
+                return "'" + value + "' is not a valid URL: " + e.getReason();
+            }
+        };
+    }
+
+    /**
+     * An absolute path. ~/ is accepted as the user home, but no other
+     * shell modifiers like ~user/ or variables.
+     */
+    static Constraint absolutePath(){
+        return value -> {
+            try {
+                String path = CachedPath.expandHome(value);
+                if(path.startsWith("~") || !Paths.get(path).isAbsolute()){
+                    return "'" + value + "' is not an absolute path";
+                }
+                return null;
+            }
+            catch (InvalidPathException e){
+                return "'" + value + "' is not a valid path: " + e.getReason();
+            }
+        };
+    }
+}
@@ -0,0 +1,115 @@
+package libconfig;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable view of the MP-Devourer settings.
+ * All the values come from the same configuration load.
+ *
+ * @author rombus
+ */
+public final class DevourerSettings {
+    private final String mltFrameworkDir;
+    private final String inputDir;
+    private final String outputDir;
+    private final String mediaDir;
+    private final String thumbDir;
+    private final CachedPath inputLocation;
+    private final CachedPath outputLocation;
+    private final CachedPath thumbLocation;
+    private final String ffmpegArgs;
+    private final String[] ffmpegArgList;
+    private final List<String> ffmpegArgView;
+    private final int thumbsQty;
+
+    DevourerSettings(ConfigurationSnapshot s){
+        mltFrameworkDir = s.get(ConfigKey.MLT_FRAMEWORK_DIR);
+        inputDir = s.get(ConfigKey.DEVOURER_INPUT_DIR);
+        outputDir = s.get(ConfigKey.DEVOURER_OUTPUT_DIR);
+        mediaDir = s.get(ConfigKey.DEVOURER_MEDIA_DIR);
+        thumbDir = s.get(ConfigKey.DEVOURER_THUMB_DIR);
+        inputLocation = CachedPath.resolve(inputDir);
+        outputLocation = CachedPath.resolve(outputDir);
+        thumbLocation = CachedPath.resolve(thumbDir);
+        ffmpegArgs = s.get(ConfigKey.DEVOURER_FFMPEG_ARGS);
+        ffmpegArgList = ShellWords.split(ffmpegArgs);
+        ffmpegArgView = Collections.unmodifiableList(Arrays.asList(ffmpegArgList));
+        thumbsQty = Integer.parseInt(s.get(ConfigKey.DEVOURER_THUMBS_QTY));
+    }
+
+    public String getMltFrameworkPath(){
+        return mltFrameworkDir;
+    }
+
+    public String getInputDir(){
+        return inputDir;
+    }
+
+    public String getOutputDir(){
+        return outputDir;
+    }
+
+    public String getMediaDir(){
+        return mediaDir;
+    }
+
+    public String getThumbDir(){
+        return thumbDir;
+    }
+
+    /**
+     * @return The resolved input directory, or null if it isn't set
+     */
+    public CachedPath getInputLocation(){
+        return inputLocation;
+    }
+
+    /**
+     * @return The resolved output directory, or null if it isn't set
+     */
+    public CachedPath getOutputLocation(){
+        return outputLocation;
+    }
+
+    /**
+     * @return The resolved thumbnails directory, or null if it isn't set
+     */
+    public CachedPath getThumbLocation(){
+        return thumbLocation;
+    }
+
+    public String getFfmpegArgs(){
+        return ffmpegArgs;
+    }
+
+    /**
+     * @return The ffmpeg arguments already split, honoring quotes
+     */
+    public List<String> getFfmpegArgList(){
+        return ffmpegArgView;
+    }
+
+    /**
+     * Builds the ffmpeg command of a transcoding job: the ffmpeg binary at
+     * mlt_framework_dir, the input, the configured arguments and the output.
+     *
+     * @param input The file to transcode
+     * @param output The file to write
+     * @return A new ProcessBuilder with the command set
+     */
+    public ProcessBuilder newFfmpegProcess(String input, String output){
+        String[] command = new String[ffmpegArgList.length + 4];
+        command[0] = mltFrameworkDir;
+        command[1] = "-i";
+        command[2] = input;
+        System.arraycopy(ffmpegArgList, 0, command, 3, ffmpegArgList.length);
+        command[command.length - 1] = output;
+        return new ProcessBuilder(command);
+    }
+
+    public int getThumbsQty(){
+        return thumbsQty;
+    }
+}
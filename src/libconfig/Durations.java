@@ -0,0 +1,89 @@
+package libconfig;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parser of the duration values of the configuration.
+ * A duration is an integer followed by a unit: ns, us, ms, s, m, h or d,
+ * like "500ms" or "120m". Numbers without a unit are read in the unit the
+ * key always had, so existing configuration files keep their meaning.
+ *
+ * @author rombus
+ */
+final class Durations {
+    private Durations(){
+    }
+
+    /**
+     * @param value The raw value of the key
+     * @param defaultUnit Unit of the value when it doesn't have a suffix
+     * @return The parsed duration
+     * @throws IllegalArgumentException If the value isn't a valid duration
+     */
+    static Duration parse(String value, TimeUnit defaultUnit){
+        String s = value.trim();
+        int end = 0;
+        if(end < s.length() && (s.charAt(end) == '-' || s.charAt(end) == '+')){
+            end++;
+        }
+        while(end < s.length() && Character.isDigit(s.charAt(end))){
+            end++;
+        }
+
+        TimeUnit unit = unit(s.substring(end).trim(), defaultUnit);
+        if(unit == null){
+            throw notADuration(value);
+        }
+
+        long amount;
+        try {
+            amount = Long.parseLong(s.substring(0, end));
+        }
+        catch (NumberFormatException e){
+            throw notADuration(value);
+        }
+
+        long nanos = unit.toNanos(amount);
+        if(nanos == Long.MAX_VALUE || nanos == Long.MIN_VALUE){
+            throw new IllegalArgumentException("'" + value + "' is too long");
+        }
+        return Duration.ofNanos(nanos);
+    }
+
+    /**
+     * Converts a duration to the int the key used before units were supported.
+     * Fractions are truncated, but positive durations shorter than one unit
+     * give 1 instead of 0. Values too big for an int are capped.
+     *
+     * @param duration A parsed duration
+     * @param unit The legacy unit of the key
+     * @return The duration in unit
+     */
+    static int toInt(Duration duration, TimeUnit unit){
+        long value = unit.convert(duration.toNanos(), TimeUnit.NANOSECONDS);
+        if(value == 0 && !duration.isZero() && !duration.isNegative()){
+            // Legacy callers would get 0 periods or timeouts
+            return 1;
+        }
+        return (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, value));
+    }
+
+    private static IllegalArgumentException notADuration(String value){
+        return new IllegalArgumentException("'" + value + "' is not a duration. Use a number followed by ns, us, ms, s, m, h or d");
+    }
+
+    private static TimeUnit unit(String suffix, TimeUnit defaultUnit){
+        switch(suffix){
+            case "": return defaultUnit;
+            case "ns": return TimeUnit.NANOSECONDS;
+            case "us": return TimeUnit.MICROSECONDS;
+            case "ms": return TimeUnit.MILLISECONDS;
+            case "s": return TimeUnit.SECONDS;
+            case "m": return TimeUnit.MINUTES;
+            case "h": return TimeUnit.HOURS;
+            case "d": return TimeUnit.DAYS;
+            default: return null;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package libconfig;
+
+import java.net.URI;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Base URL of a REST API, parsed once, that resolves endpoint paths against
+ * it. Resolved endpoints are memoized, so building the URI of a request
+ * doesn't parse anything after the first time a path is used.
+ *
+ * The base always ends with '/', so "medias" is resolved below the base path
+ * and not next to it, like string concatenation did.
+ *
+ * @author rombus
+ */
+public final class EndpointResolver {
+    /**
+     * Paths with ids change on every request, so the memo is bounded and
+     * cleared when it's full instead of growing forever.
+     */
+    private static final int MAX_CACHED = 1024;
+
+    private final URI base;
+    private final ConcurrentMap<String, URI> endpoints = new ConcurrentHashMap<>();
+
+    /**
+     * @param url An absolute URL, already validated
+     */
+    EndpointResolver(String url){
+        URI uri = URI.create(url.trim());
+        String path = uri.getRawPath();
+        if(path == null || !path.endsWith("/")){
+            uri = URI.create(uri.getScheme() + "://" + uri.getRawAuthority() + (path == null ? "" : path) + "/");
+        }
+        base = uri;
+    }
+
+    /**
+     * @return The base URL, ending with '/'
+     */
+    public URI getBase(){
+        return base;
+    }
+
+    /**
+     * @param path An endpoint path relative to the base, like "medias/12".
+     * Leading slashes are ignored. Query strings are allowed.
+     * @return The absolute URI of the endpoint
+     * @throws IllegalArgumentException If path isn't a valid URI path
+     */
+    public URI resolve(String path){
+        URI uri = endpoints.get(path);
+        if(uri == null){
+            int start = 0;
+            while(start < path.length() && path.charAt(start) == '/'){
+                start++;
+            }
+            // "./" keeps a first segment with ':', like "pieces:search", from being read as a scheme
+            uri = base.resolve("./" + path.substring(start));
+            if(endpoints.size() >= MAX_CACHED){
+                endpoints.clear();
+            }
+            endpoints.put(path, uri);
+        }
+        return uri;
+    }
+
+    @Override
+    public String toString(){
+        return base.toString();
+    }
+}
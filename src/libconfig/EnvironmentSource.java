@@ -0,0 +1,35 @@
+package libconfig;
+
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Values from environment variables named MAGMA_PLAYOUT_ followed by the key
+ * in upper case, like MAGMA_PLAYOUT_REDIS_SERVER_PORT.
+ *
+ * @author rombus
+ */
+class EnvironmentSource implements ConfigurationSource {
+    static final String PREFIX = "MAGMA_PLAYOUT_";
+
+    private final Map<String, String> environment;
+
+    EnvironmentSource(Map<String, String> environment){
+        this.environment = environment;
+    }
+
+    @Override
+    public String getName(){
+        return "environment variables " + PREFIX + "*";
+    }
+
+    @Override
+    public String[] read(){
+        ConfigKey[] keys = ConfigKey.values();
+        String[] values = new String[keys.length];
+        for(ConfigKey k : keys){
+            values[k.ordinal()] = environment.get(PREFIX + k.getKey().toUpperCase(Locale.ROOT));
+        }
+        return values;
+    }
+}
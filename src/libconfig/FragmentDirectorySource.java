@@ -0,0 +1,146 @@
+package libconfig;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Configuration fragments: every *.conf file of a directory, applied in file
+ * name order. A missing directory is the same as an empty one.
+ * The fragments are read concurrently, so a slow file system costs about the
+ * time of the slowest file instead of the sum of all of them, but they are
+ * always merged in file name order.
+ *
+ * @author rombus
+ */
+class FragmentDirectorySource implements ConfigurationSource {
+    private static final int MAX_THREADS = 8;
+
+    private final Path dir;
+    private final ParsedFileCache parsedFiles;
+
+    /**
+     * Shared by every read and created on the first one. Idle threads end
+     * after a while, so reloads don't keep threads around.
+     */
+    private static class ExecutorHolder {
+        private static final ExecutorService EXECUTOR = createExecutor();
+
+        private static ExecutorService createExecutor(){
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(MAX_THREADS, MAX_THREADS, 30, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(), r -> {
+                        Thread t = new Thread(r, "mp-libconfig-fragments");
+                        t.setDaemon(true);
+                        return t;
+                    });
+            executor.allowCoreThreadTimeOut(true);
+            return executor;
+        }
+    }
+    private volatile List<FragmentLoadTime> loadTimes = Collections.emptyList();
+
+    /**
+     * @param dir Directory of the fragments
+     * @param parsedFiles Cache used to skip parsing the fragments that didn't change
+     */
+    FragmentDirectorySource(Path dir, ParsedFileCache parsedFiles){
+        this.dir = dir;
+        this.parsedFiles = parsedFiles;
+    }
+
+    @Override
+    public String getName(){
+        return dir.resolve("*.conf").toString();
+    }
+
+    Path getDir(){
+        return dir;
+    }
+
+    /**
+     * @return The fragment files sorted by name
+     * @throws IOException If the directory can't be listed
+     */
+    List<Path> list() throws IOException {
+        List<Path> files = new ArrayList<>();
+        if(!Files.isDirectory(dir)){
+            return files;
+        }
+
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, "*.conf")) {
+            for(Path file : stream){
+                if(Files.isRegularFile(file)){
+                    files.add(file);
+                }
+            }
+        }
+        Collections.sort(files);
+        return files;
+    }
+
+    /**
+     * @return How long each fragment took to load in the last read, in file name order
+     */
+    List<FragmentLoadTime> getLoadTimes(){
+        return loadTimes;
+    }
+
+    @Override
+    public String[] read() throws IOException {
+        List<Path> files = list();
+        parsedFiles.retain(files, dir);
+        String[] values = new String[ConfigKey.values().length];
+        if(files.isEmpty()){
+            loadTimes = Collections.emptyList();
+            return values;
+        }
+
+        List<CompletableFuture<String[]>> reads = new ArrayList<>(files.size());
+        FragmentLoadTime[] times = new FragmentLoadTime[files.size()];
+        ExecutorService executor = ExecutorHolder.EXECUTOR;
+
+        try {
+            for(int i = 0; i < files.size(); i++){
+                Path file = files.get(i);
+                int index = i;
+                reads.add(CompletableFuture.supplyAsync(() -> {
+                    long start = System.nanoTime();
+                    try {
+                        return parsedFiles.parse(file);
+                    }
+                    catch (IOException e){
+                        throw new CompletionException(e);
+                    }
+                    finally {
+                        times[index] = new FragmentLoadTime(file, System.nanoTime() - start);
+                    }
+                }, executor));
+            }
+
+            // Merged in file order no matter which read finished first
+            for(CompletableFuture<String[]> read : reads){
+                ConfigurationLayers.overlay(values, read.join());
+            }
+        }
+        catch (CompletionException e){
+            if(e.getCause() instanceof IOException){
+                throw (IOException) e.getCause();
+            }
+            throw e;
+        }
+
+        loadTimes = Collections.unmodifiableList(Arrays.asList(times));
+        return values;
+    }
+}
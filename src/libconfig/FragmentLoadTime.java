@@ -0,0 +1,36 @@
+package libconfig;
+
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * How long it took to read and parse a configuration fragment.
+ *
+ * @author rombus
+ */
+public final class FragmentLoadTime {
+    private final Path file;
+    private final long nanos;
+
+    FragmentLoadTime(Path file, long nanos){
+        this.file = file;
+        this.nanos = nanos;
+    }
+
+    public Path getFile(){
+        return file;
+    }
+
+    public long getNanos(){
+        return nanos;
+    }
+
+    public long getMillis(){
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    @Override
+    public String toString(){
+        return file + ": " + getMillis() + "ms";
+    }
+}
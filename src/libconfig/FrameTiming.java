@@ -0,0 +1,158 @@
+package libconfig;
+
+/**
+ * Conversions between frames, milliseconds and timecodes for the configured
+ * medias_fps.
+ * The frame offsets inside a second are precomputed, so converting only
+ * takes a division by the FPS and a table lookup. Instances are immutable and
+ * shared between snapshots while the FPS doesn't change.
+ *
+ * Timecodes are non drop-frame, formatted as HH:MM:SS:FF. Above 100 fps the
+ * frames take three digits, HH:MM:SS:FFF, so every timecode of an FPS has the
+ * same width.
+ *
+ * @author rombus
+ */
+public final class FrameTiming {
+    private static final char[] DIGITS = new char[200];
+
+    static {
+        for(int i = 0; i < 100; i++){
+            DIGITS[i * 2] = (char) ('0' + i / 10);
+            DIGITS[i * 2 + 1] = (char) ('0' + i % 10);
+        }
+    }
+
+    private static volatile FrameTiming last;
+
+    private final int fps;
+    private final int frameDigits;
+    private final int[] frameMillis;  // First ms of each frame inside a second
+    private final int[] millisFrame;  // Frame shown at each ms inside a second
+
+    private FrameTiming(int fps){
+        this.fps = fps;
+        frameDigits = fps > 100 ? 3 : 2;
+
+        frameMillis = new int[fps];
+        for(int f = 0; f < fps; f++){
+            frameMillis[f] = (int) ((f * 1000L + fps - 1) / fps);
+        }
+
+        millisFrame = new int[1000];
+        for(int ms = 0; ms < 1000; ms++){
+            millisFrame[ms] = (int) (ms * (long) fps / 1000);
+        }
+    }
+
+    /**
+     * Returns the timing for the given FPS, reusing the last instance if it
+     * was built for the same FPS.
+     *
+     * @param fps Frames per second, between 1 and 1000
+     * @return The timing for fps
+     */
+    static FrameTiming of(int fps){
+        FrameTiming t = last;
+        if(t == null || t.fps != fps){
+            t = new FrameTiming(fps);
+            last = t;
+        }
+        return t;
+    }
+
+    public int getFps(){
+        return fps;
+    }
+
+    /**
+     * @return The duration of a frame in nanoseconds, truncated
+     */
+    public long getFrameDurationNanos(){
+        return 1_000_000_000L / fps;
+    }
+
+    /**
+     * @param frames Number of frames, not negative
+     * @return The first millisecond in which the frame is shown
+     */
+    public long framesToMillis(long frames){
+        return frames / fps * 1000 + frameMillis[(int) (frames % fps)];
+    }
+
+    /**
+     * @param millis Time in milliseconds, not negative
+     * @return The frame being shown at that time
+     */
+    public long millisToFrames(long millis){
+        return millis / 1000 * fps + millisFrame[(int) (millis % 1000)];
+    }
+
+    /**
+     * Appends the timecode of a frame without creating intermediate objects.
+     * Hours wrap at 100.
+     *
+     * @param frames Number of frames, not negative
+     * @param out Where the HH:MM:SS:FF or HH:MM:SS:FFF timecode is appended
+     * @return out
+     */
+    public StringBuilder appendTimecode(long frames, StringBuilder out){
+        long seconds = frames / fps;
+        appendTwoDigits(out, (int) (seconds / 3600 % 100)).append(':');
+        appendTwoDigits(out, (int) (seconds / 60 % 60)).append(':');
+        appendTwoDigits(out, (int) (seconds % 60)).append(':');
+        int frame = (int) (frames % fps);
+        if(frameDigits > 2){
+            out.append((char) ('0' + frame / 100));
+            frame %= 100;
+        }
+        appendTwoDigits(out, frame);
+        return out;
+    }
+
+    /**
+     * @param frames Number of frames, not negative
+     * @return The HH:MM:SS:FF or HH:MM:SS:FFF timecode of the frame
+     */
+    public String toTimecode(long frames){
+        return appendTimecode(frames, new StringBuilder(9 + frameDigits)).toString();
+    }
+
+    /**
+     * @param timecode A HH:MM:SS:FF timecode, or HH:MM:SS:FFF above 100 fps
+     * @return The frame number of the timecode
+     * @throws IllegalArgumentException If the timecode is malformed or its frames don't fit the FPS
+     */
+    public long timecodeToFrames(CharSequence timecode){
+        if(timecode.length() != 9 + frameDigits || timecode.charAt(2) != ':' || timecode.charAt(5) != ':' || timecode.charAt(8) != ':'){
+            throw new IllegalArgumentException("Malformed timecode: " + timecode);
+        }
+        int hours = parseTwoDigits(timecode, 0);
+        int minutes = parseTwoDigits(timecode, 3);
+        int seconds = parseTwoDigits(timecode, 6);
+        int frames = parseTwoDigits(timecode, timecode.length() - 2);
+        if(frameDigits > 2){
+            frames += parseDigit(timecode, 9) * 100;
+        }
+        if(minutes > 59 || seconds > 59 || frames >= fps){
+            throw new IllegalArgumentException("Timecode out of range for " + fps + " fps: " + timecode);
+        }
+        return ((hours * 60L + minutes) * 60 + seconds) * fps + frames;
+    }
+
+    private static StringBuilder appendTwoDigits(StringBuilder out, int value){
+        return out.append(DIGITS[value * 2]).append(DIGITS[value * 2 + 1]);
+    }
+
+    private static int parseTwoDigits(CharSequence s, int at){
+        return parseDigit(s, at) * 10 + parseDigit(s, at + 1);
+    }
+
+    private static int parseDigit(CharSequence s, int at){
+        int digit = s.charAt(at) - '0';
+        if(digit < 0 || digit > 9){
+            throw new IllegalArgumentException("Malformed timecode: " + s);
+        }
+        return digit;
+    }
+}
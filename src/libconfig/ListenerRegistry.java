@@ -0,0 +1,102 @@
+package libconfig;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Keeps the ConfigurationListeners and dispatches the changes of each reload
+ * only to the listeners subscribed to a key that actually changed.
+ *
+ * @author rombus
+ */
+class ListenerRegistry {
+    private final CopyOnWriteArrayList<Registration> registrations = new CopyOnWriteArrayList<>();
+
+    void addKeys(ConfigurationListener listener, ConfigKey... keys){
+        registrations.add(new Registration(listener, EnumSet.copyOf(Arrays.asList(keys)), null));
+    }
+
+    void addSection(ConfigurationListener listener, String section){
+        registrations.add(new Registration(listener, null, section));
+    }
+
+    void remove(ConfigurationListener listener){
+        registrations.removeIf(r -> r.listener == listener);
+    }
+
+    /**
+     * Computes the differences between both snapshots and notifies the
+     * interested listeners. A failing listener doesn't prevent the rest from
+     * being notified.
+     *
+     * @param previous Snapshot being replaced
+     * @param current Snapshot now in use
+     * @param logger The application logger
+     */
+    void dispatch(ConfigurationSnapshot previous, ConfigurationSnapshot current, Logger logger){
+        if(registrations.isEmpty()){
+            return;
+        }
+
+        Map<ConfigKey, String[]> diff = diff(previous, current);
+        if(diff.isEmpty()){
+            return;
+        }
+
+        for(Registration r : registrations){
+            Map<ConfigKey, String[]> changes = null;
+            for(Map.Entry<ConfigKey, String[]> e : diff.entrySet()){
+                if(r.matches(e.getKey())){
+                    if(changes == null){
+                        changes = new EnumMap<>(ConfigKey.class);
+                    }
+                    changes.put(e.getKey(), e.getValue());
+                }
+            }
+
+            if(changes != null){
+                try {
+                    r.listener.configurationChanged(new ConfigurationChange(changes));
+                }
+                catch (RuntimeException e){
+                    logger.log(Level.WARNING, "Configuration listener failed handling a change.", e);
+                }
+            }
+        }
+    }
+
+    private static Map<ConfigKey, String[]> diff(ConfigurationSnapshot previous, ConfigurationSnapshot current){
+        Map<ConfigKey, String[]> diff = new EnumMap<>(ConfigKey.class);
+        for(ConfigKey key : ConfigKey.values()){
+            String oldValue = previous.get(key);
+            String newValue = current.get(key);
+            if(!Objects.equals(oldValue, newValue)){
+                diff.put(key, new String[]{oldValue, newValue});
+            }
+        }
+        return diff;
+    }
+
+    private static class Registration {
+        private final ConfigurationListener listener;
+        private final Set<ConfigKey> keys;
+        private final String section;
+
+        Registration(ConfigurationListener listener, Set<ConfigKey> keys, String section){
+            this.listener = listener;
+            this.keys = keys;
+            this.section = section;
+        }
+
+        boolean matches(ConfigKey key){
+            return keys != null ? keys.contains(key) : key.getSection().equals(section);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package libconfig;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Immutable view of the Melted settings.
+ * All the values come from the same configuration load.
+ * Durations are also available in nanoseconds so schedulers can compare them
+ * with System.nanoTime() directly.
+ *
+ * @author rombus
+ */
+public final class MeltedSettings {
+    private final String host;
+    private final int port;
+    private final int reconnectionTimeoutMillis;
+    private final Duration reconnectionTimeout;
+    private final long reconnectionTimeoutNanos;
+    private final ReconnectionPolicy reconnectionPolicy;
+    private final int reconnectionTries;
+    private final int playlistMaxDurationMinutes;
+    private final Duration playlistMaxDuration;
+    private final long playlistMaxDurationNanos;
+    private final int appenderWorkerFreqMinutes;
+    private final Duration appenderWorkerFreq;
+    private final long appenderWorkerFreqNanos;
+    private final String meltPath;
+
+    MeltedSettings(ConfigurationSnapshot s){
+        host = s.get(ConfigKey.MELTED_SERVER_HOSTNAME);
+        port = Integer.parseInt(s.get(ConfigKey.MELTED_SERVER_PORT));
+
+        reconnectionTimeout = Durations.parse(s.get(ConfigKey.MELTED_RECONNECTION_TIMEOUT), TimeUnit.MILLISECONDS);
+        reconnectionTimeoutNanos = reconnectionTimeout.toNanos();
+        reconnectionTimeoutMillis = Durations.toInt(reconnectionTimeout, TimeUnit.MILLISECONDS);
+        reconnectionTries = Integer.parseInt(s.get(ConfigKey.MELTED_RECONNECTION_TRIES));
+        reconnectionPolicy = new ReconnectionPolicy(reconnectionTimeoutNanos,
+                Double.parseDouble(s.get(ConfigKey.MELTED_RECONNECTION_BACKOFF_MULTIPLIER)),
+                Durations.parse(s.get(ConfigKey.MELTED_RECONNECTION_MAX_DELAY), TimeUnit.MILLISECONDS).toNanos(),
+                Double.parseDouble(s.get(ConfigKey.MELTED_RECONNECTION_JITTER)),
+                reconnectionTries);
+
+        playlistMaxDuration = Durations.parse(s.get(ConfigKey.MELTED_PLAYLIST_MAX_DURATION), TimeUnit.MINUTES);
+        playlistMaxDurationNanos = playlistMaxDuration.toNanos();
+        playlistMaxDurationMinutes = Durations.toInt(playlistMaxDuration, TimeUnit.MINUTES);
+
+        appenderWorkerFreq = Durations.parse(s.get(ConfigKey.MELTED_APPENDER_WORKER_FREQ), TimeUnit.MINUTES);
+        appenderWorkerFreqNanos = appenderWorkerFreq.toNanos();
+        appenderWorkerFreqMinutes = Durations.toInt(appenderWorkerFreq, TimeUnit.MINUTES);
+
+        meltPath = s.get(ConfigKey.MELT_PATH);
+    }
+
+    public String getHost(){
+        return host;
+    }
+
+    public int getPort(){
+        return port;
+    }
+
+    /**
+     * @return The reconnection timeout, in milliseconds
+     */
+    public int getReconnectionTimeout(){
+        return reconnectionTimeoutMillis;
+    }
+
+    public Duration getReconnectionTimeoutDuration(){
+        return reconnectionTimeout;
+    }
+
+    public long getReconnectionTimeoutNanos(){
+        return reconnectionTimeoutNanos;
+    }
+
+    /**
+     * @return The delays between reconnection attempts
+     */
+    public ReconnectionPolicy getReconnectionPolicy(){
+        return reconnectionPolicy;
+    }
+
+    public int getReconnectionTries(){
+        return reconnectionTries;
+    }
+
+    /**
+     * @return The duration of melted playlist, in whole minutes, at least 1
+     */
+    public int getPlaylistMaxDuration(){
+        return playlistMaxDurationMinutes;
+    }
+
+    public Duration getPlaylistMaxDurationDuration(){
+        return playlistMaxDuration;
+    }
+
+    public long getPlaylistMaxDurationNanos(){
+        return playlistMaxDurationNanos;
+    }
+
+    /**
+     * @return The polling interval of the melted appender, in whole minutes, at least 1
+     */
+    public int getAppenderWorkerFreq(){
+        return appenderWorkerFreqMinutes;
+    }
+
+    public Duration getAppenderWorkerFreqDuration(){
+        return appenderWorkerFreq;
+    }
+
+    public long getAppenderWorkerFreqNanos(){
+        return appenderWorkerFreqNanos;
+    }
+
+    public String getMeltPath(){
+        return meltPath;
+    }
+}
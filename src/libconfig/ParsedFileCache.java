@@ -0,0 +1,103 @@
+package libconfig;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.zip.CRC32;
+
+/**
+ * Remembers the last parse of each configuration file so reloads only parse
+ * the files that actually changed.
+ * A file whose modification time and size didn't change isn't even read. A
+ * file that was touched but whose contents are the same (same hash) is read
+ * but not parsed again.
+ *
+ * Filesystems like NFS or ext3 store modification times with a coarse
+ * granularity, so a file edited right after being read may keep the same
+ * time and size. Like git does with its index, an entry whose modification
+ * time is too close to the moment it was read is "racy" and the file is
+ * always read and hashed until it isn't.
+ *
+ * @author rombus
+ */
+class ParsedFileCache {
+    /**
+     * Modification times closer than this to the read are not trusted.
+     */
+    private static final long RACY_WINDOW_MILLIS = 2000;
+
+    private final ConcurrentMap<Path, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * @param file Configuration file
+     * @return The values of the file, null for the keys it doesn't set. Must not be modified.
+     * @throws IOException If the file can't be read or parsed
+     */
+    String[] parse(Path file) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        FileTime modified = attributes.lastModifiedTime();
+        long size = attributes.size();
+
+        Entry entry = entries.get(file);
+        if(entry != null && entry.modified.equals(modified) && entry.size == size && !entry.isRacy()){
+            return entry.values;
+        }
+
+        long readAt = System.currentTimeMillis();
+        byte[] data = Files.readAllBytes(file);
+        CRC32 crc = new CRC32();
+        crc.update(data, 0, data.length);
+        long hash = crc.getValue();
+
+        String[] values;
+        if(entry != null && entry.hash == hash && entry.size == data.length){
+            values = entry.values;
+        }
+        else {
+            values = ConfigurationParser.parse(data, data.length, file);
+        }
+
+        entries.put(file, new Entry(modified, data.length, hash, values, readAt));
+        return values;
+    }
+
+    /**
+     * Forgets the files that no longer exist in the given directory listing.
+     */
+    void retain(Iterable<Path> files, Path dir){
+        Set<Path> keep = new HashSet<>();
+        for(Path file : files){
+            keep.add(file);
+        }
+        entries.keySet().removeIf(file -> dir.equals(file.getParent()) && !keep.contains(file));
+    }
+
+    private static class Entry {
+        private final FileTime modified;
+        private final long size;
+        private final long hash;
+        private final String[] values;
+        private final long readAt;
+
+        Entry(FileTime modified, long size, long hash, String[] values, long readAt){
+            this.modified = modified;
+            this.size = size;
+            this.hash = hash;
+            this.values = values;
+            this.readAt = readAt;
+        }
+
+        /**
+         * @return Whether the file could have been modified after being read without changing its modification time
+         */
+        boolean isRacy(){
+            return modified.toMillis() > readAt - RACY_WINDOW_MILLIS;
+        }
+    }
+}
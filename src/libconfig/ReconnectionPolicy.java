@@ -0,0 +1,115 @@
+package libconfig;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Delays between reconnection attempts, with exponential backoff and jitter.
+ * The first delays without jitter are precomputed when the configuration is
+ * loaded. When the multiplier is so small that the delay doesn't reach its
+ * maximum within the table, later delays are computed on each call. Getting
+ * the delay of an attempt never allocates. Instances are immutable and shared
+ * by every client of the same server.
+ *
+ * <pre>
+ * ReconnectionPolicy policy = config.getMeltedSettings().getReconnectionPolicy();
+ * for(int attempt = 0; !connect(); attempt++){
+ *     if(!policy.shouldRetry(attempt)){
+ *         throw ...;
+ *     }
+ *     TimeUnit.NANOSECONDS.sleep(policy.getDelayNanos(attempt));
+ * }
+ * </pre>
+ *
+ * @author rombus
+ */
+public final class ReconnectionPolicy {
+    private static final int MAX_STEPS = 64;
+
+    private final long[] delays;
+    private final boolean stillGrowing;  // The delays after the table are bigger than its last one
+    private final double initialDelayNanos;
+    private final double multiplier;
+    private final long maxDelayNanos;
+    private final double jitter;
+    private final int maxTries;
+
+    /**
+     * @param initialDelayNanos Delay before the first retry
+     * @param multiplier Factor applied to the delay after every attempt, 1 or more
+     * @param maxDelayNanos Upper bound of the delay
+     * @param jitter Fraction of the delay that is randomized, between 0 and 1
+     * @param maxTries Number of retries allowed, 0 for no limit
+     */
+    ReconnectionPolicy(long initialDelayNanos, double multiplier, long maxDelayNanos, double jitter, int maxTries){
+        this.initialDelayNanos = Math.min(initialDelayNanos, maxDelayNanos);
+        this.multiplier = multiplier;
+        this.maxDelayNanos = maxDelayNanos;
+        this.jitter = jitter;
+        this.maxTries = maxTries;
+
+        long[] steps = new long[MAX_STEPS];
+        int count = 0;
+        double delay = this.initialDelayNanos;
+        boolean growing = multiplier > 1 && delay > 0;
+        do {
+            steps[count++] = (long) delay;
+            growing = growing && delay < maxDelayNanos;
+            delay = Math.min(delay * multiplier, maxDelayNanos);
+        } while(growing && count < MAX_STEPS);
+
+        stillGrowing = growing;
+        delays = new long[count];
+        System.arraycopy(steps, 0, delays, 0, count);
+    }
+
+    /**
+     * @param attempt Number of failed attempts so far, starting at 0
+     * @return Whether another attempt should be made
+     */
+    public boolean shouldRetry(int attempt){
+        return maxTries == 0 || attempt < maxTries;
+    }
+
+    /**
+     * @return Number of retries allowed, 0 for no limit
+     */
+    public int getMaxTries(){
+        return maxTries;
+    }
+
+    /**
+     * Returns the time to wait before the next attempt.
+     * With jitter, the delay is randomly shortened by up to the jitter
+     * fraction, so it never exceeds the configured delay.
+     *
+     * @param attempt Number of failed attempts so far, starting at 0
+     * @return The delay in nanoseconds
+     */
+    public long getDelayNanos(int attempt){
+        long delay = baseDelayNanos(Math.max(attempt, 0));
+        if(jitter == 0 || delay == 0){
+            return delay;
+        }
+        return delay - (long) (delay * jitter * ThreadLocalRandom.current().nextDouble());
+    }
+
+    private long baseDelayNanos(int attempt){
+        if(attempt < delays.length){
+            return delays[attempt];
+        }
+        if(!stillGrowing){
+            return delays[delays.length - 1];
+        }
+        return (long) Math.min(initialDelayNanos * Math.pow(multiplier, attempt), maxDelayNanos);
+    }
+
+    /**
+     * @param attempt Number of failed attempts so far, starting at 0
+     * @return The delay in milliseconds
+     * @see #getDelayNanos(int)
+     */
+    public long getDelayMillis(int attempt){
+        return TimeUnit.NANOSECONDS.toMillis(getDelayNanos(attempt));
+    }
+}
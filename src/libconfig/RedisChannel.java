@@ -0,0 +1,48 @@
+package libconfig;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A Redis channel name, encoded to UTF-8 once when the configuration is
+ * loaded so publishing doesn't encode it again for every message.
+ *
+ * @author rombus
+ */
+public final class RedisChannel {
+    private final String name;
+    private final byte[] bytes;
+    private final ByteBuffer buffer;
+
+    RedisChannel(String name){
+        this.name = name;
+        this.bytes = name.getBytes(StandardCharsets.UTF_8);
+        this.buffer = ByteBuffer.wrap(bytes).asReadOnlyBuffer();
+    }
+
+    public String getName(){
+        return name;
+    }
+
+    /**
+     * Returns the encoded name without copying it.
+     * The array is shared by every caller and must not be modified.
+     *
+     * @return The name encoded in UTF-8
+     */
+    public byte[] getBytes(){
+        return bytes;
+    }
+
+    /**
+     * @return A new read-only buffer over the encoded name, positioned at its start
+     */
+    public ByteBuffer asByteBuffer(){
+        return buffer.duplicate();
+    }
+
+    @Override
+    public String toString(){
+        return name;
+    }
+}
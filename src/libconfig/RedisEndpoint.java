@@ -0,0 +1,161 @@
+package libconfig;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A Redis server and the connection statistics gathered by its clients.
+ * There's a single instance per host and port, so the statistics survive
+ * configuration reloads. The statistics are updated with atomics and never
+ * block.
+ *
+ * @author rombus
+ */
+public final class RedisEndpoint {
+    private static final ConcurrentMap<String, RedisEndpoint> ENDPOINTS = new ConcurrentHashMap<>();
+
+    private final String host;
+    private final int port;
+    private final AtomicLong latencyNanos = new AtomicLong();
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong lastFailureNanos = new AtomicLong();
+
+    private RedisEndpoint(String host, int port){
+        this.host = host;
+        this.port = port;
+    }
+
+    /**
+     * @return The endpoint of host and port, shared with every previous configuration that used it
+     */
+    static RedisEndpoint of(String host, int port){
+        return ENDPOINTS.computeIfAbsent(host + ':' + port, k -> new RedisEndpoint(host, port));
+    }
+
+    /**
+     * Parses a list of endpoints like "redis1:6379,redis2:6380,[::1]:6379".
+     *
+     * @param value The raw value of the key
+     * @return The endpoints, in order
+     * @throws IllegalArgumentException If an endpoint is malformed
+     */
+    static List<RedisEndpoint> parseList(String value){
+        List<RedisEndpoint> endpoints = new ArrayList<>();
+        for(String item : value.split(",")){
+            String s = item.trim();
+            int colon = s.lastIndexOf(':');
+            if(colon <= 0 || (s.indexOf(':') != colon && !s.startsWith("["))){
+                throw new IllegalArgumentException("'" + s + "' is not a host:port pair");
+            }
+
+            String host = s.substring(0, colon);
+            if(host.startsWith("[") && host.endsWith("]")){
+                host = host.substring(1, host.length() - 1);
+            }
+            int port;
+            try {
+                port = Integer.parseInt(s.substring(colon + 1));
+            }
+            catch (NumberFormatException e){
+                throw new IllegalArgumentException("'" + s + "' doesn't have a valid port");
+            }
+            if(host.isEmpty() || port < 1 || port > 65535){
+                throw new IllegalArgumentException("'" + s + "' is not a host:port pair");
+            }
+            endpoints.add(of(host, port));
+        }
+        return endpoints;
+    }
+
+    public String getHost(){
+        return host;
+    }
+
+    public int getPort(){
+        return port;
+    }
+
+    /**
+     * Records a successful connection.
+     *
+     * @param nanos Time it took to connect
+     */
+    public void recordSuccess(long nanos){
+        consecutiveFailures.set(0);
+
+        // Exponential moving average, weighting the new sample by 1/4
+        long old;
+        long updated;
+        do {
+            old = latencyNanos.get();
+            updated = old == 0 ? Math.max(nanos, 1) : old + (nanos - old) / 4;
+        } while(!latencyNanos.compareAndSet(old, updated));
+    }
+
+    /**
+     * Records a failed connection.
+     */
+    public void recordFailure(){
+        lastFailureNanos.set(System.nanoTime());
+        failures.incrementAndGet();
+        consecutiveFailures.incrementAndGet();
+    }
+
+    /**
+     * Connects to the endpoint and closes the connection right away,
+     * recording the result.
+     *
+     * @param timeoutMillis Connection timeout
+     * @return Whether the connection succeeded
+     */
+    public boolean probe(int timeoutMillis){
+        long start = System.nanoTime();
+        try (Socket socket = new Socket()) {
+            socket.connect(new InetSocketAddress(host, port), timeoutMillis);
+            recordSuccess(System.nanoTime() - start);
+            return true;
+        }
+        catch (IOException e){
+            recordFailure();
+            return false;
+        }
+    }
+
+    /**
+     * @return Average connection time in nanoseconds, 0 if it never connected
+     */
+    public long getLatencyNanos(){
+        return latencyNanos.get();
+    }
+
+    /**
+     * @return Failures since the last successful connection
+     */
+    public int getConsecutiveFailures(){
+        return consecutiveFailures.get();
+    }
+
+    /**
+     * @return Failures since the application started
+     */
+    public long getFailures(){
+        return failures.get();
+    }
+
+    long getLastFailureNanos(){
+        return lastFailureNanos.get();
+    }
+
+    @Override
+    public String toString(){
+        return host.indexOf(':') < 0 ? host + ':' + port : '[' + host + "]:" + port;
+    }
+}
@@ -0,0 +1,96 @@
+package libconfig;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Picks the Redis endpoint to connect to.
+ * Endpoints without failures since their last connection are preferred,
+ * and among them the one with the lowest connection latency, trying first
+ * the ones that were never tried. Otherwise the endpoint with the fewest
+ * consecutive failures is chosen. An endpoint that failed several times in
+ * a row is considered down and only chosen when every endpoint is down,
+ * until retryAfterNanos pass since its last failure and it gets tried again.
+ *
+ * <pre>
+ * RedisEndpoint endpoint = selector.select();
+ * long start = System.nanoTime();
+ * try {
+ *     connect(endpoint.getHost(), endpoint.getPort());
+ *     endpoint.recordSuccess(System.nanoTime() - start);
+ * }
+ * catch (IOException e) {
+ *     endpoint.recordFailure();
+ * }
+ * </pre>
+ *
+ * @author rombus
+ */
+public final class RedisEndpointSelector {
+    /**
+     * Consecutive failures after which an endpoint is considered down.
+     */
+    public static final int MAX_CONSECUTIVE_FAILURES = 3;
+
+    private final RedisEndpoint[] endpoints;
+    private final List<RedisEndpoint> endpointList;
+    private final long retryAfterNanos;
+
+    /**
+     * @param endpoints The endpoints to choose from, at least one
+     * @param retryAfterNanos Time after which an endpoint that is down is tried again
+     */
+    RedisEndpointSelector(List<RedisEndpoint> endpoints, long retryAfterNanos){
+        this.endpoints = endpoints.toArray(new RedisEndpoint[endpoints.size()]);
+        this.endpointList = Collections.unmodifiableList(endpoints);
+        this.retryAfterNanos = retryAfterNanos;
+    }
+
+    /**
+     * @return The endpoints, in the configured order
+     */
+    public List<RedisEndpoint> getEndpoints(){
+        return endpointList;
+    }
+
+    /**
+     * @return The endpoint to connect to
+     */
+    public RedisEndpoint select(){
+        long now = System.nanoTime();
+        RedisEndpoint best = null;
+        boolean bestDown = false;
+        int bestFailures = 0;
+        long bestLatency = 0;
+
+        for(RedisEndpoint e : endpoints){
+            int failures = e.getConsecutiveFailures();
+            boolean down = failures >= MAX_CONSECUTIVE_FAILURES && now - e.getLastFailureNanos() < retryAfterNanos;
+            long latency = e.getLatencyNanos();
+
+            // Ordered by: not down, fewest consecutive failures, lowest latency
+            boolean better = best == null
+                    || (down != bestDown ? !down
+                    : failures != bestFailures ? failures < bestFailures
+                    : latency < bestLatency);
+            if(better){
+                best = e;
+                bestDown = down;
+                bestFailures = failures;
+                bestLatency = latency;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Probes every endpoint so the selection is based on fresh latencies.
+     *
+     * @param timeoutMillis Connection timeout of each probe
+     */
+    public void probeAll(int timeoutMillis){
+        for(RedisEndpoint e : endpoints){
+            e.probe(timeoutMillis);
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package libconfig;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Immutable view of the Redis settings.
+ * All the values come from the same configuration load, so a reload can't
+ * mix an old host with a new port.
+ *
+ * @author rombus
+ */
+public final class RedisSettings {
+    private final String host;
+    private final int port;
+    private final RedisEndpointSelector endpointSelector;
+    private final RedisChannel pccpChannel;
+    private final RedisChannel fscpChannel;
+    private final RedisChannel pcrChannel;
+    private final RedisChannel mstaChannel;
+    private final int reconnectionTimeoutMillis;
+    private final Duration reconnectionTimeout;
+    private final long reconnectionTimeoutNanos;
+    private final ReconnectionPolicy reconnectionPolicy;
+    private final int poolSize;
+    private final int commandTimeoutMillis;
+    private final Duration commandTimeout;
+    private final long commandTimeoutNanos;
+    private final int pipelineDepth;
+    private final int pubSubBufferSize;
+
+    RedisSettings(ConfigurationSnapshot s){
+        host = s.get(ConfigKey.REDIS_SERVER_HOSTNAME);
+        port = Integer.parseInt(s.get(ConfigKey.REDIS_SERVER_PORT));
+        pccpChannel = new RedisChannel(s.get(ConfigKey.REDIS_PCCP_CHANNEL));
+        fscpChannel = new RedisChannel(s.get(ConfigKey.REDIS_FSCP_CHANNEL));
+        pcrChannel = new RedisChannel(s.get(ConfigKey.REDIS_PCR_CHANNEL));
+        mstaChannel = new RedisChannel(s.get(ConfigKey.REDIS_MSTA_CHANNEL));
+        reconnectionTimeout = Durations.parse(s.get(ConfigKey.REDIS_RECONNECTION_TIMEOUT), TimeUnit.MILLISECONDS);
+        reconnectionTimeoutNanos = reconnectionTimeout.toNanos();
+        reconnectionTimeoutMillis = Durations.toInt(reconnectionTimeout, TimeUnit.MILLISECONDS);
+        reconnectionPolicy = new ReconnectionPolicy(reconnectionTimeoutNanos,
+                Double.parseDouble(s.get(ConfigKey.REDIS_RECONNECTION_BACKOFF_MULTIPLIER)),
+                Durations.parse(s.get(ConfigKey.REDIS_RECONNECTION_MAX_DELAY), TimeUnit.MILLISECONDS).toNanos(),
+                Double.parseDouble(s.get(ConfigKey.REDIS_RECONNECTION_JITTER)),
+                0);
+
+        String pool = s.get(ConfigKey.REDIS_POOL_SIZE);
+        String servers = s.get(ConfigKey.REDIS_SERVERS).trim();
+        endpointSelector = new RedisEndpointSelector(
+                servers.isEmpty() ? Collections.singletonList(RedisEndpoint.of(host, port)) : RedisEndpoint.parseList(servers),
+                reconnectionTimeoutNanos);
+
+        poolSize = Constraint.AUTO.equals(pool) ? Runtime.getRuntime().availableProcessors() * 2 : Integer.parseInt(pool);
+        commandTimeout = Durations.parse(s.get(ConfigKey.REDIS_COMMAND_TIMEOUT), TimeUnit.MILLISECONDS);
+        commandTimeoutNanos = commandTimeout.toNanos();
+        commandTimeoutMillis = Durations.toInt(commandTimeout, TimeUnit.MILLISECONDS);
+        pipelineDepth = Integer.parseInt(s.get(ConfigKey.REDIS_PIPELINE_DEPTH));
+        pubSubBufferSize = Integer.parseInt(s.get(ConfigKey.REDIS_PUBSUB_BUFFER_SIZE));
+    }
+
+    public String getHost(){
+        return host;
+    }
+
+    public int getPort(){
+        return port;
+    }
+
+    /**
+     * @return The selector of the configured Redis servers
+     */
+    public RedisEndpointSelector getEndpointSelector(){
+        return endpointSelector;
+    }
+
+    public String getPccpChannel(){
+        return pccpChannel.getName();
+    }
+
+    /**
+     * @return The PCCP channel with its name already encoded
+     */
+    public RedisChannel getPccp(){
+        return pccpChannel;
+    }
+
+    public String getFscpChannel(){
+        return fscpChannel.getName();
+    }
+
+    /**
+     * @return The FSCP channel with its name already encoded
+     */
+    public RedisChannel getFscp(){
+        return fscpChannel;
+    }
+
+    public String getPcrChannel(){
+        return pcrChannel.getName();
+    }
+
+    /**
+     * @return The PCR channel with its name already encoded
+     */
+    public RedisChannel getPcr(){
+        return pcrChannel;
+    }
+
+    public String getMstaChannel(){
+        return mstaChannel.getName();
+    }
+
+    /**
+     * @return The MSTA channel with its name already encoded
+     */
+    public RedisChannel getMsta(){
+        return mstaChannel;
+    }
+
+    /**
+     * @return The reconnection timeout, in milliseconds
+     */
+    public int getReconnectionTimeout(){
+        return reconnectionTimeoutMillis;
+    }
+
+    public Duration getReconnectionTimeoutDuration(){
+        return reconnectionTimeout;
+    }
+
+    public long getReconnectionTimeoutNanos(){
+        return reconnectionTimeoutNanos;
+    }
+
+    /**
+     * @return The delays between reconnection attempts, without a limit of tries
+     */
+    public ReconnectionPolicy getReconnectionPolicy(){
+        return reconnectionPolicy;
+    }
+
+    /**
+     * @return Maximum connections of the pool
+     */
+    public int getPoolSize(){
+        return poolSize;
+    }
+
+    /**
+     * @return The command timeout, in milliseconds
+     */
+    public int getCommandTimeout(){
+        return commandTimeoutMillis;
+    }
+
+    public Duration getCommandTimeoutDuration(){
+        return commandTimeout;
+    }
+
+    public long getCommandTimeoutNanos(){
+        return commandTimeoutNanos;
+    }
+
+    /**
+     * @return Maximum commands sent in a pipeline before reading their replies
+     */
+    public int getPipelineDepth(){
+        return pipelineDepth;
+    }
+
+    /**
+     * @return Size in bytes of the pub/sub message buffer
+     */
+    public int getPubSubBufferSize(){
+        return pubSubBufferSize;
+    }
+}
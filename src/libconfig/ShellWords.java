@@ -0,0 +1,87 @@
+package libconfig;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits a command line into words the way a POSIX shell does, without
+ * expansions.
+ * Words are separated by unquoted whitespace. Single quotes keep everything
+ * literally, inside double quotes a backslash only escapes a backslash, a
+ * double quote, a dollar or a backquote, and a backslash outside quotes
+ * escapes the next character.
+ *
+ * @author rombus
+ */
+final class ShellWords {
+    private ShellWords(){
+    }
+
+    /**
+     * @param line The command line
+     * @return The words of the line
+     * @throws IllegalArgumentException If a quote isn't closed or the line ends with a backslash
+     */
+    static String[] split(String line){
+        List<String> words = new ArrayList<>();
+        StringBuilder word = new StringBuilder();
+        boolean inWord = false;
+
+        for(int i = 0; i < line.length(); i++){
+            char c = line.charAt(i);
+            switch(c){
+                case ' ': case '\t': case '\n': case '\r': case '\f':
+                    if(inWord){
+                        words.add(word.toString());
+                        word.setLength(0);
+                        inWord = false;
+                    }
+                    break;
+
+                case '\'': {
+                    int end = line.indexOf('\'', i + 1);
+                    if(end < 0){
+                        throw new IllegalArgumentException("Unterminated single quote at position " + (i + 1));
+                    }
+                    word.append(line, i + 1, end);
+                    i = end;
+                    inWord = true;
+                    break;
+                }
+
+                case '"': {
+                    int start = i;
+                    for(i++; i < line.length() && line.charAt(i) != '"'; i++){
+                        char q = line.charAt(i);
+                        if(q == '\\' && i + 1 < line.length() && "\\\"$`".indexOf(line.charAt(i + 1)) >= 0){
+                            q = line.charAt(++i);
+                        }
+                        word.append(q);
+                    }
+                    if(i == line.length()){
+                        throw new IllegalArgumentException("Unterminated double quote at position " + (start + 1));
+                    }
+                    inWord = true;
+                    break;
+                }
+
+                case '\\':
+                    if(++i == line.length()){
+                        throw new IllegalArgumentException("Trailing backslash");
+                    }
+                    word.append(line.charAt(i));
+                    inWord = true;
+                    break;
+
+                default:
+                    word.append(c);
+                    inWord = true;
+            }
+        }
+
+        if(inWord){
+            words.add(word.toString());
+        }
+        return words.toArray(new String[words.size()]);
+    }
+}
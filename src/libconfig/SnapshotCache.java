@@ -0,0 +1,136 @@
+package libconfig;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Binary copy of the last configuration that was loaded and validated.
+ * It's used at startup when the configuration file can't be read, so the
+ * application keeps its production values instead of the defaults.
+ * Only the values from the files are stored: environment variables and
+ * system properties are applied again over the cached values.
+ *
+ * Format: magic, version, number of entries and then every entry as
+ * key length, key bytes, value length and value bytes (UTF-8).
+ * Keys are stored by name so the cache survives adding or reordering keys.
+ *
+ * @author rombus
+ */
+class SnapshotCache {
+    private static final int MAGIC = 0x4D504C4B; // "MPLK"
+    private static final short VERSION = 1;
+
+    private final Path file;
+
+    /**
+     * @param file Where the cache is stored
+     */
+    SnapshotCache(Path file){
+        this.file = file;
+    }
+
+    Path getFile(){
+        return file;
+    }
+
+    boolean exists(){
+        return Files.isRegularFile(file);
+    }
+
+    /**
+     * Writes the values to the cache file.
+     * The file is written to a temporary file first and then moved, so a
+     * failure never leaves a half written cache. Synchronized so concurrent
+     * stores don't write the temporary file at the same time.
+     *
+     * @param values Valid values indexed by ConfigKey ordinal
+     * @param logger The application logger
+     */
+    synchronized void store(String[] values, Logger logger){
+        ConfigKey[] keys = ConfigKey.values();
+        byte[][] encoded = new byte[keys.length * 2][];
+        int size = 4 + 2 + 4;
+        for(ConfigKey k : keys){
+            encoded[k.ordinal() * 2] = k.getKey().getBytes(StandardCharsets.UTF_8);
+            encoded[k.ordinal() * 2 + 1] = values[k.ordinal()].getBytes(StandardCharsets.UTF_8);
+            size += 8 + encoded[k.ordinal() * 2].length + encoded[k.ordinal() * 2 + 1].length;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.putInt(MAGIC).putShort(VERSION).putInt(keys.length);
+        for(byte[] bytes : encoded){
+            buffer.putInt(bytes.length).put(bytes);
+        }
+        buffer.flip();
+
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                while(buffer.hasRemaining()){
+                    channel.write(buffer);
+                }
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        catch (IOException e){
+            logger.log(Level.WARNING, "Failed writing the configuration cache at {0}.", file);
+        }
+    }
+
+    /**
+     * Reads the cache file by memory mapping it.
+     * Keys that are no longer known are ignored and keys missing in the cache
+     * get their default values.
+     *
+     * @param logger The application logger
+     * @return Values indexed by ConfigKey ordinal, or null if there's no usable cache
+     */
+    String[] load(Logger logger){
+        if(!exists()){
+            return null;
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if(buffer.getInt() != MAGIC || buffer.getShort() != VERSION){
+                logger.log(Level.WARNING, "Ignoring the configuration cache at {0}: unknown format.", file);
+                return null;
+            }
+
+            String[] values = ConfigurationParser.defaultValues();
+            int count = buffer.getInt();
+            for(int i = 0; i < count; i++){
+                ConfigKey key = ConfigKey.forKey(readString(buffer));
+                String value = readString(buffer);
+                if(key != null){
+                    values[key.ordinal()] = value;
+                }
+            }
+            return values;
+        }
+        catch (IOException | BufferUnderflowException | IllegalArgumentException e){
+            logger.log(Level.WARNING, "Failed reading the configuration cache at {0}.", file);
+            return null;
+        }
+    }
+
+    private static String readString(ByteBuffer buffer){
+        int length = buffer.getInt();
+        if(length < 0 || length > buffer.remaining()){
+            throw new BufferUnderflowException();
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
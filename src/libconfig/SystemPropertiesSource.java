@@ -0,0 +1,26 @@
+package libconfig;
+
+/**
+ * Values from system properties named magma-playout. followed by the key,
+ * like -Dmagma-playout.redis_server_port=6380
+ *
+ * @author rombus
+ */
+class SystemPropertiesSource implements ConfigurationSource {
+    static final String PREFIX = "magma-playout.";
+
+    @Override
+    public String getName(){
+        return "system properties " + PREFIX + "*";
+    }
+
+    @Override
+    public String[] read(){
+        ConfigKey[] keys = ConfigKey.values();
+        String[] values = new String[keys.length];
+        for(ConfigKey k : keys){
+            values[k.ordinal()] = System.getProperty(PREFIX + k.getKey());
+        }
+        return values;
+    }
+}
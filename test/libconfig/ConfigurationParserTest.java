@@ -0,0 +1,102 @@
+package libconfig;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Properties;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+/**
+ * Checks that ConfigurationParser reads files exactly like Properties.load.
+ *
+ * @author rombus
+ */
+public class ConfigurationParserTest {
+
+    private static void assertSameAsProperties(String text) throws IOException {
+        byte[] data = text.getBytes(StandardCharsets.ISO_8859_1);
+        Properties expected = new Properties();
+        expected.load(new ByteArrayInputStream(data));
+
+        String[] values = ConfigurationParser.parse(data, data.length);
+        for(ConfigKey k : ConfigKey.values()){
+            assertEquals(k.getKey() + " in " + text, expected.getProperty(k.getKey()), values[k.ordinal()]);
+        }
+    }
+
+    @Test
+    public void separators() throws IOException {
+        assertSameAsProperties("redis_server_hostname=a\nredis_pccp_channel:b\nredis_fscp_channel c\n");
+        assertSameAsProperties("redis_server_hostname = a\nredis_pccp_channel  :  b\nredis_fscp_channel\t\tc\n");
+        assertSameAsProperties("redis_server_hostname =:a\nredis_pccp_channel :=b\nredis_fscp_channel  = \n");
+        assertSameAsProperties("redis_server_hostname\nredis_pccp_channel=\n");
+    }
+
+    @Test
+    public void commentsAndBlankLines() throws IOException {
+        assertSameAsProperties("# comment\n! other comment\n\n   \nredis_server_hostname=a # not a comment\n  # indented comment\n");
+    }
+
+    @Test
+    public void lineTerminators() throws IOException {
+        assertSameAsProperties("redis_server_hostname=a\r\nredis_pccp_channel=b\rredis_fscp_channel=c\n");
+        assertSameAsProperties("redis_server_hostname=a\r\n\r\nredis_pccp_channel=b");
+    }
+
+    @Test
+    public void continuations() throws IOException {
+        assertSameAsProperties("devourer_ffmpeg_args=-f avi \\\n    -c:v libx264 \\\n\t-qp 0\n");
+        assertSameAsProperties("devourer_ffmpeg_args=a\\\r\n   b\\\r   c\n");
+        assertSameAsProperties("devourer_ffmpeg_args=a\\\\\nredis_pccp_channel=b\n");
+        assertSameAsProperties("redis_\\\n  server_hostname=a\n");
+    }
+
+    @Test
+    public void escapes() throws IOException {
+        assertSameAsProperties("redis_server_hostname=\\u0041\\u00e9\\u20AC\n");
+        assertSameAsProperties("redis_server_hostname=\\t\\n\\r\\f\\x\\=\\:\\ \\#\n");
+        assertSameAsProperties("redis\\_server\\_hostname=a\nredis_pccp\\ channel=b\n");
+        assertSameAsProperties("redis_server_hostname=\\ leading space\n");
+    }
+
+    @Test
+    public void trailingBackslash() throws IOException {
+        assertSameAsProperties("redis_server_hostname=a\\");
+        assertSameAsProperties("redis_server_hostname=a\\\n");
+    }
+
+    @Test
+    public void latin1() throws IOException {
+        assertSameAsProperties("redis_server_hostname=caf\u00e9\n");
+    }
+
+    @Test
+    public void lastValueWins() throws IOException {
+        assertSameAsProperties("redis_server_hostname=a\nredis_server_hostname=b\n");
+    }
+
+    @Test
+    public void unknownKeysAreIgnored() throws IOException {
+        byte[] data = "foo=bar\n".getBytes(StandardCharsets.ISO_8859_1);
+        String[] values = ConfigurationParser.parse(data, data.length);
+        for(String v : values){
+            assertNull(v);
+        }
+    }
+
+    @Test
+    public void malformedUnicodeEscape(){
+        byte[] data = "redis_server_hostname=a\nredis_pccp_channel=x\\u12G4\n".getBytes(StandardCharsets.ISO_8859_1);
+        try {
+            ConfigurationParser.parse(data, data.length);
+            fail("Expected a ConfigurationParseException");
+        }
+        catch (ConfigurationParseException e){
+            assertEquals(2, e.getLine());
+            assertEquals(21, e.getColumn());
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package libconfig;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * @author rombus
+ */
+public class DurationsTest {
+
+    @Test
+    public void suffixes(){
+        assertEquals(Duration.ofNanos(10), Durations.parse("10ns", TimeUnit.MINUTES));
+        assertEquals(Duration.ofNanos(10_000), Durations.parse("10us", TimeUnit.MINUTES));
+        assertEquals(Duration.ofMillis(500), Durations.parse("500ms", TimeUnit.MINUTES));
+        assertEquals(Duration.ofSeconds(5), Durations.parse("5s", TimeUnit.MINUTES));
+        assertEquals(Duration.ofMinutes(120), Durations.parse("120m", TimeUnit.MILLISECONDS));
+        assertEquals(Duration.ofHours(2), Durations.parse("2h", TimeUnit.MILLISECONDS));
+        assertEquals(Duration.ofDays(1), Durations.parse("1d", TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void bareNumbersUseTheDefaultUnit(){
+        assertEquals(Duration.ofMinutes(120), Durations.parse("120", TimeUnit.MINUTES));
+        assertEquals(Duration.ofMillis(1000), Durations.parse("1000", TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void whitespace(){
+        assertEquals(Duration.ofSeconds(5), Durations.parse(" 5 s ", TimeUnit.MINUTES));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unknownUnit(){
+        Durations.parse("5 parsecs", TimeUnit.MINUTES);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void missingNumber(){
+        Durations.parse("ms", TimeUnit.MINUTES);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void decimalsAreNotSupported(){
+        Durations.parse("1.5s", TimeUnit.MINUTES);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void tooLong(){
+        Durations.parse("9223372036854775807d", TimeUnit.MINUTES);
+    }
+
+    @Test
+    public void legacyInts(){
+        assertEquals(90, Durations.toInt(Duration.ofMinutes(90), TimeUnit.MINUTES));
+        assertEquals(1, Durations.toInt(Duration.ofSeconds(90), TimeUnit.MINUTES));
+        assertEquals(1, Durations.toInt(Duration.ofSeconds(30), TimeUnit.MINUTES));
+        assertEquals(0, Durations.toInt(Duration.ZERO, TimeUnit.MINUTES));
+        assertEquals(Integer.MAX_VALUE, Durations.toInt(Duration.ofDays(36500), TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void constraint(){
+        Constraint positive = Constraint.positiveDuration(TimeUnit.MINUTES);
+        assertNull(positive.check("30s"));
+        assertEquals("'0m' must be more than 0", positive.check("0m"));
+        assertEquals("'-1' must be more than 0", positive.check("-1"));
+        assertNull(Constraint.nonNegativeDuration(TimeUnit.MILLISECONDS).check("0"));
+    }
+}
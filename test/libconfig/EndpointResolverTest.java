@@ -0,0 +1,38 @@
+package libconfig;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+/**
+ * @author rombus
+ */
+public class EndpointResolverTest {
+
+    @Test
+    public void baseAlwaysEndsWithSlash(){
+        assertEquals("http://localhost:8001/api/", new EndpointResolver("http://localhost:8001/api").getBase().toString());
+        assertEquals("http://localhost:8001/", new EndpointResolver("http://localhost:8001").getBase().toString());
+    }
+
+    @Test
+    public void resolvesBelowTheBase(){
+        EndpointResolver api = new EndpointResolver("http://localhost:8001/api/");
+        assertEquals("http://localhost:8001/api/medias", api.resolve("medias").toString());
+        assertEquals("http://localhost:8001/api/medias/12", api.resolve("//medias/12").toString());
+        assertEquals("http://localhost:8001/api/medias?page=2", api.resolve("medias?page=2").toString());
+    }
+
+    @Test
+    public void colonInTheFirstSegmentIsNotAScheme(){
+        EndpointResolver api = new EndpointResolver("http://localhost:8001/api/");
+        assertEquals("http://localhost:8001/api/pieces:search", api.resolve("pieces:search").toString());
+        assertEquals("http://localhost:8001/api/pieces:search", api.resolve("/pieces:search").toString());
+    }
+
+    @Test
+    public void resolvedPathsAreMemoized(){
+        EndpointResolver api = new EndpointResolver("http://localhost:8001/api/");
+        assertSame(api.resolve("medias"), api.resolve("medias"));
+    }
+}
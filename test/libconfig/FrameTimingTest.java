@@ -0,0 +1,97 @@
+package libconfig;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * @author rombus
+ */
+public class FrameTimingTest {
+
+    @Test
+    public void framesToMillis(){
+        FrameTiming t = FrameTiming.of(60);
+        assertEquals(0, t.framesToMillis(0));
+        assertEquals(17, t.framesToMillis(1));
+        assertEquals(34, t.framesToMillis(2));
+        assertEquals(50, t.framesToMillis(3));
+        assertEquals(1000, t.framesToMillis(60));
+        assertEquals(3_600_017, t.framesToMillis(60 * 3600 + 1));
+    }
+
+    @Test
+    public void millisToFrames(){
+        FrameTiming t = FrameTiming.of(60);
+        assertEquals(0, t.millisToFrames(0));
+        assertEquals(0, t.millisToFrames(16));
+        assertEquals(1, t.millisToFrames(17));
+        assertEquals(59, t.millisToFrames(999));
+        assertEquals(60, t.millisToFrames(1000));
+        assertEquals(60 * 3600 + 1, t.millisToFrames(3_600_017));
+    }
+
+    @Test
+    public void eachFrameStartsAtItsFirstMillisecond(){
+        for(int fps : new int[]{1, 24, 25, 30, 60, 120, 1000}){
+            FrameTiming t = FrameTiming.of(fps);
+            for(long f = 1; f < 3 * fps; f++){
+                long ms = t.framesToMillis(f);
+                assertEquals(fps + " fps, frame " + f, f, t.millisToFrames(ms));
+                assertEquals(fps + " fps, frame " + f, f - 1, t.millisToFrames(ms - 1));
+            }
+        }
+    }
+
+    @Test
+    public void timecodes(){
+        FrameTiming t = FrameTiming.of(60);
+        assertEquals("00:00:00:00", t.toTimecode(0));
+        assertEquals("00:00:01:05", t.toTimecode(65));
+        assertEquals("01:02:03:59", t.toTimecode(((60 + 2) * 60 + 3) * 60 + 59));
+
+        t = FrameTiming.of(120);
+        assertEquals("00:00:00:005", t.toTimecode(5));
+        assertEquals("00:00:00:105", t.toTimecode(105));
+        assertEquals("00:00:01:000", t.toTimecode(120));
+    }
+
+    @Test
+    public void timecodeRoundTrip(){
+        for(int fps : new int[]{60, 120}){
+            FrameTiming t = FrameTiming.of(fps);
+            int width = t.toTimecode(0).length();
+            for(long f = 0; f < 100L * 3600 * fps; f += 7919){
+                String timecode = t.toTimecode(f);
+                assertEquals(timecode, width, timecode.length());
+                assertEquals(timecode, f, t.timecodeToFrames(timecode));
+            }
+        }
+    }
+
+    @Test
+    public void appendTimecode(){
+        StringBuilder out = new StringBuilder("at ");
+        FrameTiming.of(25).appendTimecode(25 * 61 + 3, out);
+        assertEquals("at 00:01:01:03", out.toString());
+    }
+
+    @Test
+    public void rejectsMalformedTimecodes(){
+        FrameTiming t = FrameTiming.of(60);
+        for(String s : new String[]{"", "00:00:00:0", "00:00:00:000", "00-00-00-00", "00:00:0a:00", "00:60:00:00", "00:00:60:00", "00:00:00:60"}){
+            try {
+                t.timecodeToFrames(s);
+                fail("Expected an IllegalArgumentException for '" + s + "'");
+            }
+            catch (IllegalArgumentException e){
+                // Expected
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsFramesOutOfTheFps(){
+        FrameTiming.of(120).timecodeToFrames("00:00:00:120");
+    }
+}
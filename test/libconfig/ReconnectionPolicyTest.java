@@ -0,0 +1,85 @@
+package libconfig;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author rombus
+ */
+public class ReconnectionPolicyTest {
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    public void fixedDelay(){
+        ReconnectionPolicy p = new ReconnectionPolicy(SECOND, 1, 60 * SECOND, 0, 0);
+        for(int attempt = 0; attempt < 1000; attempt++){
+            assertEquals(SECOND, p.getDelayNanos(attempt));
+        }
+        assertEquals(1000, p.getDelayMillis(5));
+    }
+
+    @Test
+    public void exponentialSequence(){
+        ReconnectionPolicy p = new ReconnectionPolicy(SECOND, 2, 60 * SECOND, 0, 0);
+        long[] expected = {1, 2, 4, 8, 16, 32, 60, 60, 60};
+        for(int attempt = 0; attempt < expected.length; attempt++){
+            assertEquals("attempt " + attempt, expected[attempt] * SECOND, p.getDelayNanos(attempt));
+        }
+        assertEquals(60 * SECOND, p.getDelayNanos(Integer.MAX_VALUE));
+        assertEquals(SECOND, p.getDelayNanos(-1));
+    }
+
+    @Test
+    public void initialDelayIsClampedToTheMax(){
+        ReconnectionPolicy p = new ReconnectionPolicy(10 * SECOND, 2, 5 * SECOND, 0, 0);
+        assertEquals(5 * SECOND, p.getDelayNanos(0));
+        assertEquals(5 * SECOND, p.getDelayNanos(10));
+    }
+
+    @Test
+    public void smallMultipliersReachTheMax(){
+        ReconnectionPolicy p = new ReconnectionPolicy(SECOND, 1.05, 60 * SECOND, 0, 0);
+        long previous = 0;
+        for(int attempt = 0; attempt < 200; attempt++){
+            long delay = p.getDelayNanos(attempt);
+            assertTrue("attempt " + attempt, delay >= previous && delay <= 60 * SECOND);
+            previous = delay;
+        }
+        assertEquals(60 * SECOND, previous);
+        assertEquals(60 * SECOND, p.getDelayNanos(Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void zeroDelay(){
+        ReconnectionPolicy p = new ReconnectionPolicy(0, 2, 60 * SECOND, 0.5, 0);
+        assertEquals(0, p.getDelayNanos(0));
+        assertEquals(0, p.getDelayNanos(100));
+    }
+
+    @Test
+    public void jitterOnlyShortensTheDelay(){
+        ReconnectionPolicy p = new ReconnectionPolicy(SECOND, 2, 60 * SECOND, 0.25, 0);
+        boolean varied = false;
+        for(int i = 0; i < 1000; i++){
+            long delay = p.getDelayNanos(3);
+            assertTrue(delay + " out of bounds", delay > 6 * SECOND && delay <= 8 * SECOND);
+            varied |= delay != 8 * SECOND;
+        }
+        assertTrue(varied);
+    }
+
+    @Test
+    public void shouldRetry(){
+        ReconnectionPolicy limited = new ReconnectionPolicy(SECOND, 1, SECOND, 0, 3);
+        assertTrue(limited.shouldRetry(0));
+        assertTrue(limited.shouldRetry(2));
+        assertFalse(limited.shouldRetry(3));
+        assertEquals(3, limited.getMaxTries());
+
+        ReconnectionPolicy unlimited = new ReconnectionPolicy(SECOND, 1, SECOND, 0, 0);
+        assertTrue(unlimited.shouldRetry(Integer.MAX_VALUE));
+    }
+}
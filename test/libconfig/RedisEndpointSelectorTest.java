@@ -0,0 +1,137 @@
+package libconfig;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Endpoints are shared by host and port, so every test uses its own names.
+ *
+ * @author rombus
+ */
+public class RedisEndpointSelectorTest {
+    private static final long RETRY_AFTER = TimeUnit.MINUTES.toNanos(1);
+
+    private static RedisEndpointSelector selector(long retryAfterNanos, RedisEndpoint... endpoints){
+        return new RedisEndpointSelector(Arrays.asList(endpoints), retryAfterNanos);
+    }
+
+    @Test
+    public void prefersLowestLatency(){
+        RedisEndpoint slow = RedisEndpoint.of("latency-slow", 1);
+        RedisEndpoint fast = RedisEndpoint.of("latency-fast", 1);
+        slow.recordSuccess(5_000_000);
+        fast.recordSuccess(1_000_000);
+        assertSame(fast, selector(RETRY_AFTER, slow, fast).select());
+    }
+
+    @Test
+    public void triesUntriedEndpointsFirst(){
+        RedisEndpoint known = RedisEndpoint.of("untried-known", 1);
+        RedisEndpoint untried = RedisEndpoint.of("untried-new", 1);
+        known.recordSuccess(1_000_000);
+        assertSame(untried, selector(RETRY_AFTER, known, untried).select());
+    }
+
+    @Test
+    public void failingEndpointThatNeverConnectedLosesToHealthyOne(){
+        RedisEndpoint good = RedisEndpoint.of("failing-good", 1);
+        RedisEndpoint dead = RedisEndpoint.of("failing-dead", 1);
+        good.recordSuccess(1_000_000);
+        dead.recordFailure();
+        dead.recordFailure();
+        assertSame(good, selector(RETRY_AFTER, dead, good).select());
+    }
+
+    @Test
+    public void successResetsFailures(){
+        RedisEndpoint e = RedisEndpoint.of("reset", 1);
+        e.recordFailure();
+        e.recordFailure();
+        e.recordSuccess(1_000_000);
+        assertEquals(0, e.getConsecutiveFailures());
+        assertEquals(2, e.getFailures());
+    }
+
+    @Test
+    public void whenAllFailPicksTheFewestFailures(){
+        RedisEndpoint a = RedisEndpoint.of("allfail-a", 1);
+        RedisEndpoint b = RedisEndpoint.of("allfail-b", 1);
+        for(int i = 0; i < 5; i++){
+            a.recordFailure();
+        }
+        for(int i = 0; i < 4; i++){
+            b.recordFailure();
+        }
+        assertSame(b, selector(RETRY_AFTER, a, b).select());
+    }
+
+    @Test
+    public void downEndpointIsRetriedAfterTheRetryTime() throws InterruptedException {
+        RedisEndpoint old = RedisEndpoint.of("retry-old", 1);
+        RedisEndpoint recent = RedisEndpoint.of("retry-recent", 1);
+        for(int i = 0; i < 5; i++){
+            old.recordFailure();
+        }
+        Thread.sleep(100);
+        for(int i = 0; i < RedisEndpointSelector.MAX_CONSECUTIVE_FAILURES; i++){
+            recent.recordFailure();
+        }
+
+        // Both are down: the one with fewest failures is returned
+        assertSame(recent, selector(RETRY_AFTER, old, recent).select());
+        // Only the old failures are past the retry time
+        assertSame(old, selector(TimeUnit.MILLISECONDS.toNanos(50), old, recent).select());
+    }
+
+    @Test
+    public void probeAgainstLocalSockets() throws IOException {
+        InetAddress loopback = InetAddress.getLoopbackAddress();
+        try (ServerSocket server = new ServerSocket(0, 50, loopback)) {
+            int closedPort;
+            try (ServerSocket closed = new ServerSocket(0, 50, loopback)) {
+                closedPort = closed.getLocalPort();
+            }
+
+            RedisEndpoint up = RedisEndpoint.of(loopback.getHostAddress(), server.getLocalPort());
+            RedisEndpoint down = RedisEndpoint.of(loopback.getHostAddress(), closedPort);
+            RedisEndpointSelector selector = selector(RETRY_AFTER, down, up);
+
+            selector.probeAll(1000);
+            assertTrue(up.getLatencyNanos() > 0);
+            assertEquals(0, up.getConsecutiveFailures());
+            assertEquals(1, down.getConsecutiveFailures());
+            assertFalse(down.probe(1000));
+            assertSame(up, selector.select());
+        }
+    }
+
+    @Test
+    public void parseList(){
+        List<RedisEndpoint> endpoints = RedisEndpoint.parseList("redis1:6379, redis2:6380,[::1]:6381");
+        assertEquals(3, endpoints.size());
+        assertEquals("redis1:6379", endpoints.get(0).toString());
+        assertEquals("redis2", endpoints.get(1).getHost());
+        assertEquals(6380, endpoints.get(1).getPort());
+        assertEquals("::1", endpoints.get(2).getHost());
+        assertSame(endpoints.get(0), RedisEndpoint.of("redis1", 6379));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void parseListWithoutPort(){
+        RedisEndpoint.parseList("redis1");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void parseListWithInvalidPort(){
+        RedisEndpoint.parseList("redis1:70000");
+    }
+}
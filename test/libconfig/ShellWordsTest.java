@@ -0,0 +1,62 @@
+package libconfig;
+
+import org.junit.Test;
+import static org.junit.Assert.assertArrayEquals;
+
+/**
+ * @author rombus
+ */
+public class ShellWordsTest {
+
+    private static void assertWords(String line, String... expected){
+        assertArrayEquals(line, expected, ShellWords.split(line));
+    }
+
+    @Test
+    public void whitespace(){
+        assertWords("-f avi -c:v libx264 -qp 0", "-f", "avi", "-c:v", "libx264", "-qp", "0");
+        assertWords("  a \t b\n", "a", "b");
+        assertWords("", new String[0]);
+        assertWords("   ", new String[0]);
+    }
+
+    @Test
+    public void singleQuotes(){
+        assertWords("-vf 'scale=1280:720, fps=25'", "-vf", "scale=1280:720, fps=25");
+        assertWords("'a\\b \"c\"'", "a\\b \"c\"");
+        assertWords("''", "");
+    }
+
+    @Test
+    public void doubleQuotes(){
+        assertWords("-metadata \"title=A \\\"B\\\"\"", "-metadata", "title=A \"B\"");
+        assertWords("\"\\$x \\\\ \\n\"", "$x \\ \\n");
+        assertWords("\"\"", "");
+    }
+
+    @Test
+    public void backslashes(){
+        assertWords("a\\ b c", "a b", "c");
+        assertWords("\\'a", "'a");
+    }
+
+    @Test
+    public void adjacentPartsMakeOneWord(){
+        assertWords("a'b c'\"d e\"f", "ab cd ef");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unterminatedSingleQuote(){
+        ShellWords.split("-vf 'oops");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unterminatedDoubleQuote(){
+        ShellWords.split("-vf \"oops");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void trailingBackslash(){
+        ShellWords.split("a\\");
+    }
+}